@@ -46,9 +46,19 @@ public final class App {
     public static final RefTo<AppMode> mode = Ref.to(AppMode.class).defaultedUsing(isUnderJUnit, isUnderJUnit
             -> isUnderJUnit ? AppMode.TEST : AppMode.PROD);
     
+    /**
+     * Freeze the application scope when it is initialized in PROD mode - Default to false.
+     * 
+     * Once frozen, the provider of each ref is determined only once, the listener is not notified and the provider
+     *   does not record its caller. The threads with no substitution get the value directly from the frozen table.
+     **/
+    public static final RefTo<Boolean> freezeInProduction = Ref.to("freezeInProduction", Boolean.class)
+            .defaultedTo(false);
+    
     /** List of Refs that will be protected (force 'Dictate' at initialize time) */
     public static final List<Ref<?>> PROTECTED_REFS = unmodifiableList(asList(
-            App.mode
+            App.mode,
+            App.freezeInProduction
     ));
     
     /** The only instance of the Application scope. */
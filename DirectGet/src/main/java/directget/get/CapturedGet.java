@@ -0,0 +1,67 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.function.Supplier;
+
+import lombok.val;
+
+/**
+ * The substitution of a Get captured to be reinstated later on any thread (see {@link GetInstance#capture()}).
+ * 
+ * Each run has its own Get that starts from the captured substitution as is (no copying) -- so reinstating takes
+ *   constant time and the runs do not see the substitution of one another.
+ * 
+ * @author NawaMan
+ */
+public final class CapturedGet {
+    
+    // Never used by any thread -- only forked.
+    private final GetInstance captured;
+    
+    CapturedGet(GetInstance captured) {
+        this.captured = captured;
+    }
+    
+    /** @return the scope of the captured Get. */
+    public Scope getScope() {
+        return captured.getScope();
+    }
+    
+    /**
+     * Run the given runnable with the captured Get -- the Get of this thread is restored afterward.
+     * 
+     * @param runnable  the runnable.
+     */
+    public void run(Runnable runnable) {
+        captured.getScope().runWithGet(captured.copy(), runnable);
+    }
+    
+    /**
+     * Get the value from the given supplier with the captured Get -- the Get of this thread is restored afterward.
+     * 
+     * @param supplier  the supplier.
+     * @return the value.
+     */
+    public <V> V call(Supplier<V> supplier) {
+        val result = new Object[1];
+        run(() -> result[0] = supplier.get());
+        @SuppressWarnings("unchecked")
+        V value = (V)result[0];
+        return value;
+    }
+    
+}
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import dssb.utils.common.Nulls;
@@ -44,7 +45,9 @@ import lombok.experimental.ExtensionMethod;
 @ExtensionMethod({ utilities.class, Nulls.class })
 public final class Configuration {
     
-    private final Map<Ref, Provider> providers;
+    private static final Function<Provider, String> pairToString = provider -> provider.getRef() + "=" + provider;
+    
+    private final ProviderTable providers;
     
     /** Default constructor. */
     public Configuration() {
@@ -89,9 +92,12 @@ public final class Configuration {
     
     // TODO - Have this printed out.
     private static Map<Ref, Provider> toMap(Stream<Provider> providers) {
+        // Refs are compared by their ids so this map is kept in the order the refs are created.
         val theMap = new TreeMap<Ref, Provider>();
         providers.forEach(provider->{
-            addToMap(theMap, provider);
+            // Normalized so a configured value is read from a final field.
+            val normalized = (provider != null) ? provider.normalized() : null;
+            addToMap(theMap, normalized);
         });
         return theMap;
     }
@@ -117,17 +123,21 @@ public final class Configuration {
     }
     
     private Configuration(Map<Ref, Provider> providers) {
-        this.providers = providers._toUnmodifiableSortedMap();
+        this.providers = (providers != null) ? new ProviderTable(providers.values()) : ProviderTable.EMPTY;
     }
     
     /** @return all the refs specified by this configuration. */
     public Stream<Ref> getRefs() {
-        return providers.keySet().stream();
+        return providers.providers().map(Provider::getRef);
     }
     
     /** @return all the providers specified by this configuration. */
     public Stream<Provider> getProviders() {
-        return providers.values().stream();
+        return providers.providers();
+    }
+    
+    ProviderTable getProviderTable() {
+        return providers;
     }
     
     /**
@@ -148,7 +158,7 @@ public final class Configuration {
      * @return {@code true} if this configuration specified the provider for the given ref.
      **/
     public <T> boolean hasProvider(Ref<T> theGivenRef) {
-        val hasProvider = providers.containsKey(theGivenRef);
+        val hasProvider = (providers.get(theGivenRef) != null);
         return hasProvider;
     }
     
@@ -165,12 +175,12 @@ public final class Configuration {
      * @return the detail string representation of this object. 
      **/
     public String toXRayString() {
-        val isEmpty = providers.isEmpty();
+        val isEmpty = (providers.size() == 0);
         if (isEmpty) {
             return "{\n}";
         }
         
-        String pairs = providers._toPairStrings()._toIndentLines();
+        String pairs = providers.providers().map(pairToString)._toIndentLines();
         String xRay = String.format("{\n\t%s\n}", pairs);
         return xRay;
     }
@@ -23,7 +23,7 @@ import directget.get.exceptions.AppScopeAlreadyInitializedException;
 import directget.get.run.Named;
 import directget.get.run.Named.Predicate;
 import directget.get.supportive.CounterThreadFactory;
-import directget.get.supportive.GetThreadFactoryExecutor;
+import directget.get.supportive.GetThreadPoolExecutor;
 import directget.get.supportive.Provider;
 import directget.get.supportive.RefTo;
 import lombok.val;
@@ -54,7 +54,7 @@ public final class Get {
     public static final RefTo<ThreadFactory> DefaultThreadFactory = Ref.to(ThreadFactory.class).defaultedTo(CounterThreadFactory.instance);
     
     /** The reference to the executor. */
-    public static final RefTo<Executor> DefaultExecutor = Ref.to(Executor.class).defaultedToBy(()->GetThreadFactoryExecutor.instance);
+    public static final RefTo<Executor> DefaultExecutor = Ref.to(Executor.class).defaultedToBy(GetThreadPoolExecutor::getDefault);
     
     
     private Get() {
@@ -119,6 +119,64 @@ public final class Get {
         return value;
     }
     
+    /**
+     * Resolve the values of the given refs at once.
+     * 
+     * @param refs  the refs.
+     * @return the snapshot of the values.
+     **/
+    @SuppressWarnings("rawtypes")
+    public static Snapshot snapshot(Ref ... refs) {
+        val snapshot = App.scope.get().snapshot(refs);
+        return snapshot;
+    }
+    
+    //-- primitive --
+    
+    /**
+     * The int value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef.
+     **/
+    public static int intOf(Ref<Integer> theGivenRef) {
+        val value = App.scope.get().intOf(theGivenRef);
+        return value;
+    }
+    
+    /**
+     * The long value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef.
+     **/
+    public static long longOf(Ref<Long> theGivenRef) {
+        val value = App.scope.get().longOf(theGivenRef);
+        return value;
+    }
+    
+    /**
+     * The double value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef.
+     **/
+    public static double doubleOf(Ref<Double> theGivenRef) {
+        val value = App.scope.get().doubleOf(theGivenRef);
+        return value;
+    }
+    
+    /**
+     * The boolean value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef.
+     **/
+    public static boolean booleanOf(Ref<Boolean> theGivenRef) {
+        val value = App.scope.get().booleanOf(theGivenRef);
+        return value;
+    }
+    
     //-- value --
     
     /**
@@ -17,18 +17,30 @@ package directget.get;
 
 import static directget.get.Get.DefaultExecutor;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import dssb.utils.common.Nulls;
+import directget.get.Preferability.DetermineProviderListener;
 import directget.get.exceptions.RunWithSubstitutionException;
 import directget.get.supportive.Provider;
 import directget.get.supportive.ProviderStackMap;
+import directget.get.supportive.RefFilter;
+import directget.get.supportive.SubstitutionSet;
 import directget.get.utilities;
 import lombok.val;
 import lombok.experimental.ExtensionMethod;
@@ -43,11 +55,37 @@ public final class GetInstance {
     
     private final Scope scope;
     
-    private final ProviderStackMap providerStacks = new ProviderStackMap();
+    // NOTE: GetInstance is confined to one thread (see Scope.get()) so the substitution needs no locking.
+    private final ProviderStackMap providerStacks;
+    
+    /** The nesting count of {@link #withoutListener(Supplier)} -- only accessed by the thread of this Get. */
+    private int listenerSuppression = 0;
+    
+    /** The resolved providers with the epoch at which each of them was resolved. */
+    private final ResolvedProviders resolvedProviders = new ResolvedProviders();
+    
+    /** The current epoch -- changed every time the substitution or the scope configuration changed. */
+    private int epoch = 1;
+    
+    /** The epoch of the scope configuration that the resolved providers were resolved with. */
+    private int configEpoch = -1;
+    
+    /** The epoch of the App scope configuration that {@link #isListenerConfigured} was checked at. */
+    private int listenerEpoch = -1;
+    
+    private boolean isListenerConfigured = false;
+    
+    /** Whether the listener was ever substituted by any Get -- only then the Get of the App scope has to be checked. */
+    private static volatile boolean isListenerSubstituted = false;
     
     
     GetInstance(Scope scope) {
-        this.scope = scope;
+        this(scope, new ProviderStackMap());
+    }
+    
+    private GetInstance(Scope scope, ProviderStackMap providerStacks) {
+        this.scope          = scope;
+        this.providerStacks = providerStacks;
     }
     
     /** @return the scope this Get is in. */
@@ -55,9 +93,13 @@ public final class GetInstance {
         return this.scope;
     }
     
+    ProviderStackMap getProviderStacks() {
+        return providerStacks;
+    }
+    
     @SuppressWarnings("rawtypes")
     Stream<Ref> getStackRefs() {
-        return providerStacks.keySet().stream();
+        return providerStacks.getRefs();
     }
     
     <T> Provider<T> getProvider(Ref<T> ref) {
@@ -65,10 +107,153 @@ public final class GetInstance {
             return null;
         }
         
-        val provider = Preferability.determineProvider(ref, scope.getParentScope(), scope, providerStacks);
+        // The substitution bound to the running code takes over the one of this Get -- it is not cached.
+        val scopedStacks = ScopedContext.current(scope);
+        if (scopedStacks != null) {
+            return Preferability.determineProvider(ref, scope.getParentScope(), scope, scopedStacks, getListener(ref));
+        }
+        
+        // The frozen scope only needs a lookup when there is no substitution.
+        val frozenProviders = scope.getFrozenProviders();
+        if ((frozenProviders != null) && providerStacks.isEmpty()) {
+            val provider = frozenProviders.get(ref);
+            return (provider != null) ? provider : ref.getProvider();
+        }
+        
+        // The listener has to be notified every time so the cache cannot be used.
+        val listener = getListener(ref);
+        if (listener != null) {
+            val provider = Preferability.determineProvider(ref, scope.getParentScope(), scope, providerStacks, listener);
+            return provider;
+        }
+        
+        val provider = getResolvedProvider(ref);
         return provider;
     }
-
+    
+    /**
+     * Check if the listener has to be notified when the given ref is resolved.
+     * 
+     * @param ref  the ref.
+     * @return {@code true} if there is a listener.
+     */
+    boolean hasListener(Ref<?> ref) {
+        return getListener(ref) != null;
+    }
+    
+    /**
+     * Returns the listener to be notified when the given ref is resolved -- checked against the App configuration
+     *   only once per configuration change.
+     * 
+     * @param ref  the ref.
+     * @return the listener or {@code null} if there is none.
+     */
+    DetermineProviderListener getListener(Ref<?> ref) {
+        if ((ref == Preferability.DefaultListener)
+         || (listenerSuppression != 0)
+         || !isListenerPossible()
+         || scope.isInitializing.get()
+         || App.scope.isFrozen()) {
+            return null;
+        }
+        
+        // The listener is always from the App scope.
+        val appGet = App.scope.get();
+        return appGet.getConfiguredListener();
+    }
+    
+    /**
+     * Run the given supplier without notifying the listener of the providers determined by this Get.
+     * 
+     * The suppression only applies to this Get (so to the current thread) -- other threads still notify the listener.
+     * 
+     * @param supplier  the supplier body.
+     * @return the result of the supplier.
+     */
+    public <V> V withoutListener(Supplier<V> supplier) {
+        listenerSuppression++;
+        try {
+            return supplier.get();
+        } finally {
+            listenerSuppression--;
+            // Anything cached while suppressed did not account for the listener.
+            changeEpoch();
+        }
+    }
+    
+    /** @return {@code true} if the listener is suppressed for this Get. */
+    boolean isListenerSuppressed() {
+        return listenerSuppression != 0;
+    }
+    
+    private boolean isListenerPossible() {
+        val appEpoch = App.scope.getConfigEpoch();
+        if (listenerEpoch != appEpoch) {
+            isListenerConfigured = App.scope.isListenerConfigured();
+            listenerEpoch        = appEpoch;
+        }
+        return isListenerConfigured || isListenerSubstituted;
+    }
+    
+    private DetermineProviderListener getConfiguredListener() {
+        scope.initIfAbsent(null);
+        if (!scope.isListenerConfigured() && (providerStacks.peek(Preferability.DefaultListener) == null)) {
+            return null;
+        }
+        
+        val provider = getResolvedProvider(Preferability.DefaultListener);
+        return (provider != null) ? provider.get() : null;
+    }
+    
+    /**
+     * Returns the current epoch.
+     * 
+     * The epoch changes every time the substitution or the configuration of the scope changes so a provider resolved
+     *   at the same epoch is still valid.
+     * 
+     * @return the current epoch -- never zero.
+     */
+    int getEpoch() {
+        val scopeEpoch = scope.getConfigEpoch();
+        if (scopeEpoch != configEpoch) {
+            configEpoch = scopeEpoch;
+            changeEpoch();
+        }
+        return epoch;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> Provider<T> getResolvedProvider(Ref<T> ref) {
+        val currentEpoch = getEpoch();
+        
+        val id   = ref.getId();
+        val slot = resolvedProviders.find(id, currentEpoch);
+        if (slot >= 0) {
+            return resolvedProviders.providerAt(slot);
+        }
+        
+        val provider = Preferability.determineProvider(ref, scope.getParentScope(), scope, providerStacks, null);
+        resolvedProviders.put(id, currentEpoch, provider);
+        return provider;
+    }
+    
+    /**
+     * Called when this Get stops being the Get of its thread -- the accessors bound to it resolve again so they do not
+     *   keep using this Get in place of the current one.
+     */
+    void detach() {
+        changeEpoch();
+    }
+    
+    /** Invalidate all the resolved providers. */
+    private void changeEpoch() {
+        epoch++;
+        // Zero is the epoch of the slots that are never resolved.
+        if (epoch == 0) {
+            epoch++;
+        }
+    }
+    
     //-- the --
     
     /**
@@ -78,8 +263,7 @@ public final class GetInstance {
      * @return the value associated with theGivenRef.
      **/
     public <T> T the(Ref<T> theGivenRef) {
-        val optValue = scope.doGetThe(theGivenRef);
-        val value    = optValue.orElse(null);
+        val value = scope.doGetThe(theGivenRef);
         return value;
     }
     
@@ -90,14 +274,160 @@ public final class GetInstance {
      * @return the value associated with the given targetClass.
      **/
     public <T> T the(Class<T> targetClass) {
-        val ref      = Ref.defaultOf(targetClass);
-        val optValue = scope.doGetThe(ref);
-        val value    = optValue.orElse(null);
+        val ref   = Ref.defaultOf(targetClass);
+        val value = scope.doGetThe(ref);
         return value;
     }
     
+    /**
+     * The int value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef or {@code 0} if there is none.
+     **/
+    public int intOf(Ref<Integer> theGivenRef) {
+        scope.initIfAbsent(null);
+        val provider = getProvider(theGivenRef);
+        if (provider == null) {
+            return 0;
+        }
+        val supplier = provider.getSupplier();
+        if (supplier instanceof IntSupplier) {
+            return ((IntSupplier)supplier).getAsInt();
+        }
+        val value = provider.get();
+        return (value != null) ? value : 0;
+    }
+    
+    /**
+     * The long value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef or {@code 0L} if there is none.
+     **/
+    public long longOf(Ref<Long> theGivenRef) {
+        scope.initIfAbsent(null);
+        val provider = getProvider(theGivenRef);
+        if (provider == null) {
+            return 0L;
+        }
+        val supplier = provider.getSupplier();
+        if (supplier instanceof LongSupplier) {
+            return ((LongSupplier)supplier).getAsLong();
+        }
+        val value = provider.get();
+        return (value != null) ? value : 0L;
+    }
+    
+    /**
+     * The double value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef or {@code 0.0} if there is none.
+     **/
+    public double doubleOf(Ref<Double> theGivenRef) {
+        scope.initIfAbsent(null);
+        val provider = getProvider(theGivenRef);
+        if (provider == null) {
+            return 0.0;
+        }
+        val supplier = provider.getSupplier();
+        if (supplier instanceof DoubleSupplier) {
+            return ((DoubleSupplier)supplier).getAsDouble();
+        }
+        val value = provider.get();
+        return (value != null) ? value : 0.0;
+    }
+    
+    /**
+     * The boolean value associated with theGivenRef -- without boxing when the provider supplies a primitive.
+     * 
+     * @param theGivenRef 
+     * @return the value associated with theGivenRef or {@code false} if there is none.
+     **/
+    public boolean booleanOf(Ref<Boolean> theGivenRef) {
+        scope.initIfAbsent(null);
+        val provider = getProvider(theGivenRef);
+        if (provider == null) {
+            return false;
+        }
+        val supplier = provider.getSupplier();
+        if (supplier instanceof BooleanSupplier) {
+            return ((BooleanSupplier)supplier).getAsBoolean();
+        }
+        val value = provider.get();
+        return (value != null) ? value : false;
+    }
+    
+    /**
+     * Returns an accessor to the value of the given ref for the current thread.
+     * 
+     * The accessor keeps the resolved provider and only resolves it again when the substitution or the configuration
+     *   changes -- so reading the value is almost as cheap as reading a field. This is useful in tight loops.
+     * 
+     * @param theGivenRef  the ref.
+     * @return the accessor.
+     */
+    public <T> RefAccessor<T> accessor(Ref<T> theGivenRef) {
+        scope.initIfAbsent(null);
+        return new RefAccessor<>(this, theGivenRef);
+    }
+    
+    //-- Snapshot --
+    
+    /**
+     * Resolve the values of the given refs at once.
+     * 
+     * @param refs  the refs.
+     * @return the snapshot of the values.
+     */
+    @SuppressWarnings("rawtypes")
+    public Snapshot snapshot(Ref ... refs) {
+        return snapshot(Arrays.asList(refs));
+    }
+    
+    /**
+     * Resolve the values of all the refs known to this Get (configured or substituted) that pass the given predicate.
+     * 
+     * @param refsToInclude  the predicate to select the refs.
+     * @return the snapshot of the values.
+     */
+    @SuppressWarnings("rawtypes")
+    public Snapshot snapshot(Predicate<Ref> refsToInclude) {
+        List<Ref> refs = Stream.concat(scope.getConfiguredRefs(), getStackRefs())
+                .filter(refsToInclude)
+                ._toList();
+        return snapshot(refs);
+    }
+    
+    @SuppressWarnings("rawtypes")
+    private Snapshot snapshot(List<Ref> refs) {
+        scope.initIfAbsent(null);
+        
+        // Refs are equal only to themselves -- the identity set avoids their hash codes (of the target class).
+        val seenRefs   = Collections.newSetFromMap(new IdentityHashMap<Ref, Boolean>());
+        val uniqueRefs = refs.stream().filter(seenRefs::add).toArray(Ref[]::new);
+        while (true) {
+            // Taken again if the configuration changes in the middle so all the values are from one configuration.
+            val configEpoch = scope.getConfigEpoch();
+            val values      = new Object[uniqueRefs.length];
+            for (int i = 0; i < uniqueRefs.length; i++) {
+                val provider = getProvider((Ref<?>)uniqueRefs[i]);
+                values[i] = (provider != null) ? provider.get() : null;
+            }
+            if (scope.getConfigEpoch() == configEpoch) {
+                return new Snapshot(uniqueRefs, values);
+            }
+        }
+    }
+    
     //-- Substitute --
     
+    /** @return {@code true} if this Get has any provider substituted (including the inherited ones). */
+    public boolean isSubstituted() {
+        return !providerStacks.isEmpty();
+    }
+    
     /**
      * Substitute the given providers and run the runnable.
      * 
@@ -106,9 +436,31 @@ public final class GetInstance {
      */
     @SuppressWarnings({ "rawtypes" })
     public void substitute(Stream<Provider> providers, Runnable runnable) {
+        substitute(new SubstitutionSet(providers), runnable);
+    }
+    
+    /**
+     * Substitute the given providers and run the action.
+     * 
+     * @param providers the provider to be substitute.
+     * @param supplier  the supplier body.
+     * @return the result of the computation.
+     */
+    @SuppressWarnings("rawtypes")
+    public <V> V substitute(Stream<Provider> providers, Supplier<V> supplier) {
+        return substitute(new SubstitutionSet(providers), supplier);
+    }
+    
+    /**
+     * Substitute the providers of the given substitution set and run the runnable.
+     * 
+     * @param substitution the substitution set.
+     * @param runnable     the runnable body.
+     */
+    public void substitute(SubstitutionSet substitution, Runnable runnable) {
         val problemHolder = new AtomicReference<RuntimeException>(null);
         try {
-            substitute(providers, runnable._toSupplier(problemHolder));
+            substitute(substitution, runnable._toSupplier(problemHolder));
         } catch (Throwable t) {
             throw new RunWithSubstitutionException(t);
         }
@@ -120,50 +472,37 @@ public final class GetInstance {
     }
     
     /**
-     * Substitute the given providers and run the action.
+     * Substitute the providers of the given substitution set and run the action.
      * 
-     * @param providers the provider to be substitute.
-     * @param supplier  the supplier body.
+     * @param substitution the substitution set.
+     * @param supplier     the supplier body.
      * @return the result of the computation.
      */
-    @SuppressWarnings("rawtypes")
-    synchronized public <V> V substitute(Stream<Provider> providers, Supplier<V> supplier) {
-        List<Ref> substitutedRefs = null;
+    public <V> V substitute(SubstitutionSet substitution, Supplier<V> supplier) {
+        if ((ScopedContext.current(scope) != null) || ScopedContext.isEnabled()) {
+            return ScopedContext.call(scope, substitution, supplier);
+        }
+        
+        val mark = providerStacks.mark();
         try {
-            substitutedRefs = substituteProviders(providers, substitutedRefs);
+            if (!substitution.isEmpty()) {
+                if (!isListenerSubstituted && substitution.hasProvider(Preferability.DefaultListener)) {
+                    isListenerSubstituted = true;
+                }
+                providerStacks.pushAll(substitution);
+                changeEpoch();
+            }
             val result = supplier.get();
             return result;
         } finally {
-            resetSubstitution(substitutedRefs);
-        }
-    }
-
-    @SuppressWarnings("rawtypes")
-    private List<Ref> substituteProviders(Stream<Provider> providers, List<Ref> addedRefs) {
-        Iterable<Provider> iterable = () -> providers.iterator();
-        for (Provider provider : iterable) {
-            if (provider == null) {
-                continue;
-            }
-            
-            val ref = provider.getRef();
-            val stack = providerStacks.get(ref);
-            stack.push(provider);
-            if (addedRefs == null) {
-                addedRefs = new ArrayList<>();
-            }
-            addedRefs.add(ref);
+            resetSubstitution(mark);
         }
-        return addedRefs;
     }
     
-    @SuppressWarnings("rawtypes")
-    private void resetSubstitution(List<Ref> addedRefs) {
-        if (addedRefs != null) {
-            addedRefs.forEach(ref -> {
-                val stack = providerStacks.get(ref);
-                stack.pop();
-            });
+    private void resetSubstitution(ProviderStackMap.State mark) {
+        val isChanged = providerStacks.popTo(mark);
+        if (isChanged) {
+            changeEpoch();
         }
     }
     
@@ -174,54 +513,126 @@ public final class GetInstance {
      * @param runnable      the runnable body.
      **/
     public void runAsync(@SuppressWarnings("rawtypes") List<Ref> refsToInherit, Runnable runnable) {
-        runAsync(refsToInherit::contains, runnable);
+        runAsync(RefFilter.including(refsToInherit), runnable);
     }
     
     /**
      * Run the given runnable asynchronously and inherits the substitution
      * from the current Get (all Ref that pass the predicate test).
      * 
+     * The new Get starts from the current substitution as is (no copying) so this takes constant time when all or
+     *   none of the refs are inherited ({@link Get#INHERIT_ALL} or {@link Get#INHERIT_NONE}). With a
+     *   {@link RefFilter}, this is proportional to the number of the substituted refs.
+     * 
      * @param refsToInherit  the list of Ref to inherit.
      * @param runnable       the runnable body.
      **/
     @SuppressWarnings("rawtypes")
     public void runAsync(Predicate<Ref> refsToInherit, Runnable runnable) {
-        val newGet = new GetInstance(scope);
-        val providers = prepareProviders(refsToInherit);
+        runAsync(refsToInherit, the(DefaultExecutor), runnable);
+    }
+    
+    /**
+     * Run the given runnable asynchronously on the given executor and inherits the substitution
+     * from the current Get (all Ref that pass the predicate test).
+     * 
+     * @param refsToInherit  the list of Ref to inherit.
+     * @param executor       the executor.
+     * @param runnable       the runnable body.
+     **/
+    @SuppressWarnings("rawtypes")
+    public void runAsync(Predicate<Ref> refsToInherit, Executor executor, Runnable runnable) {
+        val newGet = forkGet(refsToInherit);
+        
+        // Restore the Get after as the task may run on a thread that is not a worker (like the caller).
+        executor.execute(() -> scope.runWithGet(newGet, runnable));
+    }
+    
+    /**
+     * Run the given runnable as a task of the given fork-join pool and inherits the substitution
+     * from the current Get (all Ref that pass the predicate test).
+     * 
+     * When called from a worker thread of the pool, the task is forked to the queue of that worker (to be stolen by
+     *   the idle workers) -- so joining it helps running the pending tasks instead of blocking the thread.
+     *   Otherwise, the task is submitted to the pool. The Get of the worker is restored after the task as a worker
+     *   may run other tasks while joining.
+     * 
+     * @param refsToInherit  the list of Ref to inherit.
+     * @param pool           the fork-join pool.
+     * @param runnable       the runnable body.
+     * @return the task.
+     **/
+    @SuppressWarnings("rawtypes")
+    public ForkJoinTask<?> runForkJoin(Predicate<Ref> refsToInherit, ForkJoinPool pool, Runnable runnable) {
+        val newGet = forkGet(refsToInherit);
+        val task   = ForkJoinTask.adapt(() -> scope.runWithGet(newGet, runnable));
         
-        val newExecutor = the(DefaultExecutor);
-        newExecutor.execute(() -> {
-            scope.threadGet.set(newGet);
-            val providersList = providers;
-            newGet.substitute(providersList.stream(), runnable);
-        });
+        val thread = Thread.currentThread();
+        if ((thread instanceof ForkJoinWorkerThread) && (((ForkJoinWorkerThread)thread).getPool() == pool)) {
+            task.fork();
+        } else {
+            pool.execute(task);
+        }
+        return task;
     }
     
+    /**
+     * Capture the current substitution of this Get -- to be reinstated later on any thread.
+     * 
+     * The capture starts from the current substitution as is (no copying) so this takes constant time.
+     * 
+     * @return the captured Get.
+     **/
+    public CapturedGet capture() {
+        return capture(RefFilter.ALL);
+    }
+    
+    /**
+     * Capture the current substitution of the refs that pass the predicate test -- to be reinstated later on any
+     *   thread.
+     * 
+     * This takes constant time when all or none of the refs are captured ({@link Get#INHERIT_ALL} or
+     *   {@link Get#INHERIT_NONE}). With a {@link RefFilter}, this is proportional to the number of the substituted
+     *   refs.
+     * 
+     * @param refsToInherit  the refs to be captured.
+     * @return the captured Get.
+     **/
     @SuppressWarnings("rawtypes")
-    private static final Predicate<Predicate<Ref>> notInteritNone = test -> test != Get.INHERIT_NONE;
+    public CapturedGet capture(Predicate<Ref> refsToInherit) {
+        return new CapturedGet(forkGet(refsToInherit));
+    }
+    
+    // A new Get with the substitution of this one -- for the Get that is not used by any thread (see CapturedGet).
+    GetInstance copy() {
+        return new GetInstance(scope, providerStacks.fork(RefFilter.ALL));
+    }
     
     @SuppressWarnings("rawtypes")
-    private static final Supplier<List<Provider>> emptyProviderList = ()->new ArrayList<Provider>();
+    private GetInstance forkGet(Predicate<Ref> refsToInherit) {
+        val scopedStacks = ScopedContext.current(scope);
+        val stacks       = (scopedStacks != null) ? scopedStacks : providerStacks;
+        val filter       = toRefFilter(stacks, refsToInherit);
+        return new GetInstance(scope, stacks.fork(filter));
+    }
     
-    @SuppressWarnings({ "rawtypes", "unchecked" })
-    private List<Provider> prepareProviders(Predicate<Ref> refsToInherit) {
-        Preferability._ListenerEnabled_.set(false);
-        try {
-            Function<Predicate<Ref>, List> filterRefs = test -> {
-                return (List) getStackRefs()
-                        .filter(test)
-                        .map(this::getProvider)
-                        ._toList();
-            };
-            List<Provider> list
-                = refsToInherit.whenNotNull()
-                    .filter(notInteritNone)
-                    .map(filterRefs)
-                    .orElse(emptyProviderList.get());
-            return (List<Provider>) list;
-        } finally {
-            Preferability._ListenerEnabled_.set(true);
+    @SuppressWarnings("rawtypes")
+    private static RefFilter toRefFilter(ProviderStackMap stacks, Predicate<Ref> refsToInherit) {
+        if (refsToInherit instanceof RefFilter) {
+            return (RefFilter)refsToInherit;
         }
+        if ((refsToInherit == null) || (refsToInherit == Get.INHERIT_NONE)) {
+            return RefFilter.NONE;
+        }
+        if (refsToInherit == Get.INHERIT_ALL) {
+            return RefFilter.ALL;
+        }
+        
+        // Only the refs with substitution matter.
+        List<Ref> refs = stacks.getRefs()
+                .filter(refsToInherit)
+                ._toList();
+        return RefFilter.including(refs);
     }
     
     /**
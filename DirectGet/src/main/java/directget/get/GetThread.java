@@ -0,0 +1,93 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.Arrays;
+
+import lombok.val;
+
+/**
+ * Thread that holds its Gets directly -- one slot for each scope.
+ * 
+ * Looking up the Get of a scope on this thread is an array index instead of a ThreadLocal lookup. Threads created
+ *   by {@link directget.get.supportive.CounterThreadFactory} are of this class. Other threads use the ThreadLocal.
+ * 
+ * @author NawaMan
+ */
+public class GetThread extends Thread {
+    
+    private static final GetInstance[] NO_SLOTS = new GetInstance[0];
+    
+    // Only accessed by this thread.
+    private GetInstance[] slots = NO_SLOTS;
+    
+    /**
+     * Constructor.
+     * 
+     * @param runnable  the runnable body.
+     */
+    public GetThread(Runnable runnable) {
+        super(runnable);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param runnable  the runnable body.
+     * @param name      the name of the thread.
+     */
+    public GetThread(Runnable runnable, String name) {
+        super(runnable, name);
+    }
+    
+    GetInstance getInstance(Scope scope) {
+        val index = scope.index;
+        if (index < slots.length) {
+            val get = slots[index];
+            if (get != null) {
+                return get;
+            }
+        }
+        
+        val get = new GetInstance(scope);
+        setInstance(scope, get);
+        return get;
+    }
+    
+    void setInstance(Scope scope, GetInstance get) {
+        val index = scope.index;
+        if (index >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+        }
+        val previous = slots[index];
+        slots[index] = get;
+        if ((get == null) && (previous != null)) {
+            previous.detach();
+        }
+    }
+    
+    /** Clear all the Gets of this thread -- the next use of each scope on this thread starts with a fresh Get. */
+    public void clearGets() {
+        for (int i = 0; i < slots.length; i++) {
+            val get = slots[i];
+            slots[i] = null;
+            if (get != null) {
+                get.detach();
+            }
+        }
+    }
+    
+}
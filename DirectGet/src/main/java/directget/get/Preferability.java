@@ -15,13 +15,8 @@
 //  ========================================================================
 package directget.get;
 
-import static directget.get.Get.the;
-
 import java.util.Arrays;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -81,8 +76,6 @@ public enum Preferability {
     /** */
     public static final RefTo<DetermineProviderListener> DefaultListener = Ref.to(DetermineProviderListener.class);
     
-    static final AtomicBoolean _ListenerEnabled_ = new AtomicBoolean(true);
-    
     // TODO - Clean this up.
     /**  */
     @FunctionalInterface
@@ -106,99 +99,146 @@ public enum Preferability {
         
     }
     
+    /**
+     * Determine the provider for Get and notify the listener of the Get of the current scope (if any).
+     * 
+     * @param theRef 
+     * @param parentScope 
+     * @param currentScope 
+     * @param stacks 
+     * 
+     * @return the provider.
+     * 
+     * @deprecated the listener is looked up on every call -- resolve it once and use
+     *               {@link #determineProvider(Ref, Scope, Scope, ProviderStackMap, DetermineProviderListener)}.
+     */
+    @Deprecated
+    public static <T> Provider<T> determineProvider(Ref<T> theRef, Scope parentScope, Scope currentScope,
+            ProviderStackMap stacks) {
+        val listener = currentScope.get().getListener(theRef);
+        return determineProvider(theRef, parentScope, currentScope, stacks, listener);
+    }
+    
     // The code in the following method is heavily duplicated.
     // That is intentional, if we are wondering where a provider came from,
     // debugging these method will give you that answer very quickly.
     // Ok, I am going to regret typing this too .... but
     // This logic is not intended or supposed to be changed often.
     /**
-     * Determine the provider for Get.
+     * Determine the provider for Get and notify the given listener (if any).
+     * 
+     * Nothing is allocated when there is no listener. The XRay and the stack trace are only built when the listener
+     *   asks for them.
      * 
      * @param theRef 
      * @param parentScope 
      * @param currentScope 
      * @param stacks 
+     * @param listener      the listener -- may be {@code null}.
      * 
      * @return the provider.
      */
     public static <T> Provider<T> determineProvider(Ref<T> theRef, Scope parentScope, Scope currentScope,
-            ProviderStackMap stacks) {
-        // TODO - This code is terrible.
-        Optional<BiConsumer<String, Provider<T>>> alarm = Optional
-                .ofNullable(
-                        (!_ListenerEnabled_.get() || (theRef == DefaultListener) || currentScope.isInitializing.get())
-                        ? null
-                        : the(DefaultListener))
-                .map(listener -> (foundSource, foundProvider) -> {
-                    listener.onDetermine(theRef, foundSource, foundProvider, Preferability::callStackToString,
-                            getXRayString(theRef, parentScope, currentScope, stacks));
-                });
-        
+            ProviderStackMap stacks, DetermineProviderListener listener) {
         val refProvider = theRef.getProvider();
         if (Dictate.is(refProvider)) {
-            alarm.ifPresent(it -> it.accept("Ref", refProvider));
+            if (listener != null) notify(listener, theRef, "Ref", refProvider, parentScope, currentScope, stacks);
             return refProvider;
         }
         
-        val parentProvider = (parentScope != null) ? parentScope.getProvider(theRef) : null;
+        val parentProvider = (parentScope != null) ? parentScope.getInheritedProvider(theRef) : null;
         if (Dictate.is(parentProvider)) {
-            alarm.ifPresent(it -> it.accept("Parent", parentProvider));
+            if (listener != null) notify(listener, theRef, "Parent", parentProvider, parentScope, currentScope, stacks);
             return parentProvider;
         }
         
         val configProvider = currentScope.getProvider(theRef);
         if (Dictate.is(configProvider)) {
-            alarm.ifPresent(it -> it.accept("Config", configProvider));
+            if (listener != null) notify(listener, theRef, "Config", configProvider, parentScope, currentScope, stacks);
             return configProvider;
         }
         
         val stackProvider = stacks.peek(theRef);
         if (Dictate.is(stackProvider)) {
-            alarm.ifPresent(it -> it.accept("Stack", stackProvider));
+            if (listener != null) notify(listener, theRef, "Stack", stackProvider, parentScope, currentScope, stacks);
             return stackProvider;
         }
         
         // At this point, non is dictate.
         
         if (Normal.is(stackProvider)) {
-            alarm.ifPresent(it -> it.accept("Stack", stackProvider));
+            if (listener != null) notify(listener, theRef, "Stack", stackProvider, parentScope, currentScope, stacks);
             return stackProvider;
         }
         if (Normal.is(configProvider)) {
-            alarm.ifPresent(it -> it.accept("Config", configProvider));
+            if (listener != null) notify(listener, theRef, "Config", configProvider, parentScope, currentScope, stacks);
             return configProvider;
         }
         if (Normal.is(parentProvider)) {
-            alarm.ifPresent(it -> it.accept("Parent", parentProvider));
+            if (listener != null) notify(listener, theRef, "Parent", parentProvider, parentScope, currentScope, stacks);
             return parentProvider;
         }
         if (Normal.is(refProvider)) {
-            alarm.ifPresent(it -> it.accept("Ref", refProvider));
+            if (listener != null) notify(listener, theRef, "Ref", refProvider, parentScope, currentScope, stacks);
             return refProvider;
         }
         
         // At this point, non is normal.
         
         if (Default.is(stackProvider)) {
-            alarm.ifPresent(it -> it.accept("Stack", stackProvider));
+            if (listener != null) notify(listener, theRef, "Stack", stackProvider, parentScope, currentScope, stacks);
             return stackProvider;
         }
         if (Default.is(configProvider)) {
-            alarm.ifPresent(it -> it.accept("Config", configProvider));
+            if (listener != null) notify(listener, theRef, "Config", configProvider, parentScope, currentScope, stacks);
             return configProvider;
         }
         if (Default.is(parentProvider)) {
-            alarm.ifPresent(it -> it.accept("Parent", parentProvider));
+            if (listener != null) notify(listener, theRef, "Parent", parentProvider, parentScope, currentScope, stacks);
             return parentProvider;
         }
         if (Default.is(refProvider)) {
-            alarm.ifPresent(it -> it.accept("Ref", refProvider));
+            if (listener != null) notify(listener, theRef, "Ref", refProvider, parentScope, currentScope, stacks);
             return refProvider;
         }
         
         return null;
     }
     
+    /**
+     * Determine the provider to be inherited from the given parent and the current scope.
+     * 
+     * A dictate of the outer scope wins over the inner one. Otherwise, the inner one wins at the same preferability.
+     * 
+     * @param parentProvider  the provider inherited from the parent scope.
+     * @param configProvider  the provider from the configuration of the current scope.
+     * @return the provider.
+     */
+    static <T> Provider<T> determineInheritedProvider(Provider<T> parentProvider, Provider<T> configProvider) {
+        if (Dictate.is(parentProvider)) {
+            return parentProvider;
+        }
+        if (Dictate.is(configProvider)) {
+            return configProvider;
+        }
+        if (Normal.is(configProvider)) {
+            return configProvider;
+        }
+        if (Normal.is(parentProvider)) {
+            return parentProvider;
+        }
+        if (Default.is(configProvider)) {
+            return configProvider;
+        }
+        return parentProvider;
+    }
+    
+    private static <T> void notify(DetermineProviderListener listener, Ref<T> theRef, String from,
+            Provider<T> provider, Scope parentScope, Scope currentScope, ProviderStackMap stacks) {
+        Supplier<String> xraySupplier = () -> getXRayString(parentScope, currentScope, stacks);
+        listener.onDetermine(theRef, from, provider, Preferability::callStackToString, xraySupplier);
+    }
+    
     private static String callStackToString() {
         val toString = Arrays.stream(Thread.currentThread().getStackTrace())
                 .map(Objects::toString)
@@ -206,17 +246,11 @@ public enum Preferability {
         return "\t" + toString;
     }
     
-    private static <T> Supplier<String> getXRayString(Ref<T> ref, Scope parentScope, Scope currentScope,
-            ProviderStackMap stacks) {
-        String parentXRayString  = parentScope .mapFrom(scopeToXRay);
-        String currentXRayString = currentScope.mapFrom(scopeToXRay);
-        String stackXRayString   = stacks      .mapFrom(stackToXRay);
-        return () -> {
-        	String parentXRay  = parentXRayString .mapBy(addingTabIndentation);
-            String currentXRay = currentXRayString.mapBy(addingTabIndentation);
-            String stackXRay   = stackXRayString  .mapBy(addingTabIndentation);
-            return "{" + "\n\tParent:" + parentXRay + "\n\tConfig:" + currentXRay + "\n\tStack :" + stackXRay + "\n}";
-        };
+    private static String getXRayString(Scope parentScope, Scope currentScope, ProviderStackMap stacks) {
+        String parentXRay  = parentScope .mapFrom(scopeToXRay).mapBy(addingTabIndentation);
+        String currentXRay = currentScope.mapFrom(scopeToXRay).mapBy(addingTabIndentation);
+        String stackXRay   = stacks      .mapFrom(stackToXRay).mapBy(addingTabIndentation);
+        return "{" + "\n\tParent:" + parentXRay + "\n\tConfig:" + currentXRay + "\n\tStack :" + stackXRay + "\n}";
     }
     
 }
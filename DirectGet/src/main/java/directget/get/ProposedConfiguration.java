@@ -311,7 +311,8 @@ public class ProposedConfiguration {
     private Consumer<? super Entry<Provider, Set<BiConsumer<Provider, Status>>>> notifyEvent(Status status) {
         return entry->{
             val provider = entry.getKey();
-            val isInused = (boolean)(provider.isNotNull() && (provider == Get.getProvider(provider.getRef())));
+            val inUsed   = provider.isNotNull() ? Get.getProvider(provider.getRef()) : null;
+            val isInused = (boolean)((inUsed != null) && (provider == inUsed.getOriginal()));
             if (isInused != status.isAccepted())
                 return;
             
@@ -0,0 +1,125 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import directget.get.supportive.Provider;
+
+/**
+ * Immutable open-addressing table of providers keyed by the id of their refs.
+ * 
+ * Looking up a provider is a few array reads and int comparisons -- no hashing of the ref and no allocation.
+ * 
+ * @author NawaMan
+ **/
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class ProviderTable {
+    
+    /** The empty table. */
+    static final ProviderTable EMPTY = new ProviderTable(new Provider[0]);
+    
+    /** The providers in the order they are given. */
+    private final Provider[] providers;
+    
+    /** The ref id (plus one) of each slot -- zero for the empty slot. */
+    private final int[] slotIds;
+    
+    private final Provider[] slotProviders;
+    
+    private final int mask;
+    
+    /**
+     * Constructs a table from the given providers -- each of them must be for different ref.
+     * 
+     * @param providers  the providers.
+     */
+    ProviderTable(Collection<? extends Provider> providers) {
+        this(providers.toArray(new Provider[providers.size()]));
+    }
+    
+    private ProviderTable(Provider[] providers) {
+        // Keep the load factor at most half so there is always an empty slot to stop the probing.
+        int capacity = 2;
+        while (capacity < providers.length*2) {
+            capacity <<= 1;
+        }
+        
+        this.providers     = providers;
+        this.slotIds       = new int[capacity];
+        this.slotProviders = new Provider[capacity];
+        this.mask          = capacity - 1;
+        
+        for (Provider provider : providers) {
+            int id    = provider.getRef().getId();
+            int index = indexOf(id);
+            while (slotIds[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            slotIds[index]       = id + 1;
+            slotProviders[index] = provider;
+        }
+    }
+    
+    private int indexOf(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+    
+    /**
+     * Returns the provider of the given ref id.
+     * 
+     * @param id  the ref id.
+     * @return  the provider or {@code null} if there is none.
+     */
+    Provider get(int id) {
+        int slotId = id + 1;
+        int index  = indexOf(id);
+        while (true) {
+            int thisId = slotIds[index];
+            if (thisId == slotId) {
+                return slotProviders[index];
+            }
+            if (thisId == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    /**
+     * Returns the provider of the given ref.
+     * 
+     * @param ref  the ref.
+     * @return  the provider or {@code null} if there is none.
+     */
+    <T> Provider<T> get(Ref<T> ref) {
+        return get(ref.getId());
+    }
+    
+    /** @return the number of providers in this table. */
+    int size() {
+        return providers.length;
+    }
+    
+    /** @return the providers in this table. */
+    Stream<Provider> providers() {
+        return Arrays.stream(providers);
+    }
+    
+}
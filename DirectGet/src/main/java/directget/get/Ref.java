@@ -24,8 +24,11 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import directget.get.exceptions.DefaultRefException;
@@ -37,6 +40,10 @@ import directget.get.supportive.ICanBeSupplier;
 import directget.get.supportive.Provider;
 import directget.get.supportive.RefOf;
 import directget.get.supportive.RefTo;
+import directget.get.supportive.RefToBoolean;
+import directget.get.supportive.RefToDouble;
+import directget.get.supportive.RefToInt;
+import directget.get.supportive.RefToLong;
 import directget.objectlocator.impl.ObjectLocator;
 import directget.objectlocator.impl.exception.ObjectCreationException;
 import dssb.callerid.impl.CallerId;
@@ -58,20 +65,52 @@ public abstract class Ref<T> implements ICanBeSupplier<T>, HasProvider<T>, Compa
                 .additionalSupplierFinders(asList(new DefaultRefSupplierFinder()))
                 .build();
     
+    private static final AtomicInteger idCounter = new AtomicInteger(0);
+    
+    private final int id;
+    
     private final Class<T> targetClass;
     
     private final String targetClassName;
     
     protected Ref(Class<T> targetClass) {
+        this(targetClass, newId());
+    }
+    
+    protected Ref(Class<T> targetClass, int id) {
+        this.id              = id;
         this.targetClass     = targetClass;
         this.targetClassName = this.targetClass.getCanonicalName();
     }
     
+    /**
+     * Returns a new unique ref id.
+     * 
+     * The ids are dense (start from zero and increment by one), so they can be used to index an array.
+     * 
+     * @return the new id.
+     **/
+    protected static int newId() {
+        return idCounter.getAndIncrement();
+    }
+    
     /** @return this reference **/
     public final Ref<T> getRef() {
         return this;
     }
     
+    /**
+     * The numeric id of this reference.
+     * 
+     * The id is assigned when the reference is created and never changes. Equal references have the same id so the
+     *   id can be used as the key to lookup the provider of the reference.
+     * 
+     * @return the id.
+     **/
+    public final int getId() {
+        return this.id;
+    }
+    
     /**
      * The name of the reference.
      * 
@@ -127,6 +166,11 @@ public abstract class Ref<T> implements ICanBeSupplier<T>, HasProvider<T>, Compa
         return the(this);
     }
     
+    /** @return the accessor to the value of this ref bound to the Get of the current thread. */
+    public final RefAccessor<T> bindToCurrentThread() {
+        return App.Get().accessor(this);
+    }
+    
     /** @return the current value for this ref. */
     public final Supplier<T> asSupplier() {
         return ()->value();
@@ -143,11 +187,7 @@ public abstract class Ref<T> implements ICanBeSupplier<T>, HasProvider<T>, Compa
             return Integer.MAX_VALUE;
         }
         
-        if (this.equals(o)) {
-            return 0;
-        }
-        
-        return this.toString().compareTo(o.toString());
+        return Integer.compare(this.getId(), o.getId());
     }
     
     // == Factory method ======================================================
@@ -303,6 +343,112 @@ public abstract class Ref<T> implements ICanBeSupplier<T>, HasProvider<T>, Compa
         return (RefTo<T>)to(targetClass).defaultedToThe(Ref.of(targetClass));
     }
     
+    //-- primitive --
+    
+    /**
+     * Create and return a reference to an int value with the default value.
+     * 
+     * @param name          the ref name.
+     * @param defaultValue  the default value.
+     * @return the ref.
+     **/
+    public static RefToInt toInt(String name, int defaultValue) {
+        return CallerId.instance.trace(caller->{
+            return new RefToInt(name, Preferability.Default, () -> defaultValue);
+        });
+    }
+    
+    /**
+     * Create and return a reference to an int value with the default supplier.
+     * 
+     * @param name           the ref name.
+     * @param valueSupplier  the supplier of the default value.
+     * @return the ref.
+     **/
+    public static RefToInt toInt(String name, IntSupplier valueSupplier) {
+        return CallerId.instance.trace(caller->{
+            return new RefToInt(name, Preferability.Default, valueSupplier);
+        });
+    }
+    
+    /**
+     * Create and return a reference to a long value with the default value.
+     * 
+     * @param name          the ref name.
+     * @param defaultValue  the default value.
+     * @return the ref.
+     **/
+    public static RefToLong toLong(String name, long defaultValue) {
+        return CallerId.instance.trace(caller->{
+            return new RefToLong(name, Preferability.Default, () -> defaultValue);
+        });
+    }
+    
+    /**
+     * Create and return a reference to a long value with the default supplier.
+     * 
+     * @param name           the ref name.
+     * @param valueSupplier  the supplier of the default value.
+     * @return the ref.
+     **/
+    public static RefToLong toLong(String name, LongSupplier valueSupplier) {
+        return CallerId.instance.trace(caller->{
+            return new RefToLong(name, Preferability.Default, valueSupplier);
+        });
+    }
+    
+    /**
+     * Create and return a reference to a double value with the default value.
+     * 
+     * @param name          the ref name.
+     * @param defaultValue  the default value.
+     * @return the ref.
+     **/
+    public static RefToDouble toDouble(String name, double defaultValue) {
+        return CallerId.instance.trace(caller->{
+            return new RefToDouble(name, Preferability.Default, () -> defaultValue);
+        });
+    }
+    
+    /**
+     * Create and return a reference to a double value with the default supplier.
+     * 
+     * @param name           the ref name.
+     * @param valueSupplier  the supplier of the default value.
+     * @return the ref.
+     **/
+    public static RefToDouble toDouble(String name, DoubleSupplier valueSupplier) {
+        return CallerId.instance.trace(caller->{
+            return new RefToDouble(name, Preferability.Default, valueSupplier);
+        });
+    }
+    
+    /**
+     * Create and return a reference to a boolean value with the default value.
+     * 
+     * @param name          the ref name.
+     * @param defaultValue  the default value.
+     * @return the ref.
+     **/
+    public static RefToBoolean toBoolean(String name, boolean defaultValue) {
+        return CallerId.instance.trace(caller->{
+            return new RefToBoolean(name, Preferability.Default, () -> defaultValue);
+        });
+    }
+    
+    /**
+     * Create and return a reference to a boolean value with the default supplier.
+     * 
+     * @param name           the ref name.
+     * @param valueSupplier  the supplier of the default value.
+     * @return the ref.
+     **/
+    public static RefToBoolean toBoolean(String name, BooleanSupplier valueSupplier) {
+        return CallerId.instance.trace(caller->{
+            return new RefToBoolean(name, Preferability.Default, valueSupplier);
+        });
+    }
+    
     //-- factory --
     
     /**
@@ -366,8 +512,42 @@ public abstract class Ref<T> implements ICanBeSupplier<T>, HasProvider<T>, Compa
     
     //== Default ==============================================================
     
-    @SuppressWarnings({ "rawtypes" })
-    private static final ConcurrentHashMap<Class, Optional<RefTo>> defeaultRefs = new ConcurrentHashMap<>();
+    /** The default refs of the classes -- looked up without hashing the class. */
+    private static final ClassValue<DefaultRefHolder> defaultRefs = new ClassValue<DefaultRefHolder>() {
+        @Override
+        protected DefaultRefHolder computeValue(Class<?> type) {
+            return new DefaultRefHolder(type);
+        }
+    };
+    
+    // ClassValue may compute more than once when raced so the ref itself is created lazily by the holder.
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final class DefaultRefHolder {
+        
+        private final Class targetClass;
+        
+        private volatile RefTo ref = null;
+        
+        DefaultRefHolder(Class targetClass) {
+            this.targetClass = targetClass;
+        }
+        
+        RefTo getRef() {
+            RefTo theRef = this.ref;
+            if (theRef != null) {
+                return theRef;
+            }
+            
+            synchronized (this) {
+                if (this.ref == null) {
+                    val foundRef = findDefaultRefOf(targetClass);
+                    this.ref = (foundRef != null) ? foundRef : Ref.to(targetClass).defaultedToThe(Ref.of(targetClass));
+                }
+                return this.ref;
+            }
+        }
+        
+    }
     
     // NOTE: Put it here to use 'Ref' as a namespace.
     
@@ -386,15 +566,9 @@ public abstract class Ref<T> implements ICanBeSupplier<T>, HasProvider<T>, Compa
      * @param targetClass the target class.
      * @return the default reference or {@code null} if non exist.
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @SuppressWarnings({ "unchecked" })
     public static <T> RefTo<T> defaultOf(Class<T> targetClass) {
-        Optional<RefTo> refOpt = defeaultRefs.get(targetClass);
-        if (refOpt == null) {
-            val ref = findDefaultRefOf(targetClass);
-            refOpt = Optional.of((ref != null) ? ref : Ref.to(targetClass).defaultedToThe(Ref.of(targetClass)));
-            defeaultRefs.put(targetClass, refOpt);
-        }
-        return refOpt.orElse(null);
+        return defaultRefs.get(targetClass).getRef();
     }
     
     /**
@@ -0,0 +1,105 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.function.Supplier;
+
+import directget.get.supportive.Provider;
+import lombok.val;
+
+/**
+ * Accessor to the value of a ref that keeps the resolved provider.
+ * 
+ * The accessor is bound to the Get that creates it and to the thread it is created on. The provider is only resolved
+ *   again when the substitution or the configuration changes or when a listener has to be notified. When it is used from
+ *   another thread or when the Get is not the current Get of its thread any more (an async session of the same thread or
+ *   a substitution bound to the running code), the accessor falls back to the current Get.
+ * 
+ * @param <T> the data type.
+ * 
+ * @author NawaMan
+ */
+public final class RefAccessor<T> implements Supplier<T> {
+    
+    private final GetInstance get;
+    
+    private final Thread owner;
+    
+    private final Ref<T> ref;
+    
+    /** The provider and the epoch it is resolved at -- replaced as a whole so the two always match. */
+    private Resolved<T> resolved = null;
+    
+    RefAccessor(GetInstance get, Ref<T> ref) {
+        this.get   = get;
+        this.owner = Thread.currentThread();
+        this.ref   = ref;
+    }
+    
+    /** @return the ref. */
+    public Ref<T> getRef() {
+        return ref;
+    }
+    
+    /** @return the current value of the ref. */
+    @Override
+    public T get() {
+        // The Get changes its epoch when it is replaced on its thread (see GetInstance.detach()) so the owner thread
+        //   with a matching epoch is still using the bound Get.
+        if (Thread.currentThread() == owner) {
+            val current = resolved;
+            if ((current != null) && (current.epoch == get.getEpoch())) {
+                return (current.provider != null) ? current.provider.get() : null;
+            }
+        }
+        return resolve();
+    }
+    
+    private T resolve() {
+        val scope      = get.getScope();
+        val currentGet = scope.get();
+        if ((Thread.currentThread() != owner) || (currentGet != get) || (ScopedContext.current(scope) != null)) {
+            val value = currentGet.the(ref);
+            return value;
+        }
+        
+        val currentEpoch = get.getEpoch();
+        val provider     = get.getProvider(ref);
+        // Zero is never an epoch so the provider is resolved again every time there is a listener.
+        resolved = new Resolved<>(provider, get.hasListener(ref) ? 0 : currentEpoch);
+        return (provider != null) ? provider.get() : null;
+    }
+    
+    private static final class Resolved<T> {
+        
+        final Provider<T> provider;
+        
+        final int epoch;
+        
+        Resolved(Provider<T> provider, int epoch) {
+            this.provider = provider;
+            this.epoch    = epoch;
+        }
+        
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Accessor(" + ref + ")";
+    }
+    
+}
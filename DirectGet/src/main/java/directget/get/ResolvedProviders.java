@@ -0,0 +1,140 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import directget.get.supportive.Provider;
+
+/**
+ * Open-addressing cache of the providers resolved by a Get keyed by the id of their refs -- each with the epoch it
+ *   is resolved at (see {@link ProviderTable} for the immutable table).
+ * 
+ * The size follows the number of the refs resolved (not the largest ref id) and the entries of the older epochs are
+ *   dropped when the table grows. Not thread safe -- a Get is confined to its thread.
+ * 
+ * @author NawaMan
+ **/
+@SuppressWarnings("rawtypes")
+final class ResolvedProviders {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    /** The ref id (plus one) of each slot -- zero for the empty slot. */
+    private int[] slotIds = new int[INITIAL_CAPACITY];
+    
+    /** The epoch each slot is resolved at -- zero is never an epoch. */
+    private int[] slotEpochs = new int[INITIAL_CAPACITY];
+    
+    private Provider[] slotProviders = new Provider[INITIAL_CAPACITY];
+    
+    private int mask = INITIAL_CAPACITY - 1;
+    
+    private int count = 0;
+    
+    private int indexOf(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+    
+    /** @return the slot of the given id or the empty slot where it is to be put. */
+    private int slotOf(int id) {
+        int slotId = id + 1;
+        int index  = indexOf(id);
+        while (true) {
+            int thisId = slotIds[index];
+            if ((thisId == slotId) || (thisId == 0)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    /**
+     * Returns the slot of the provider of the given ref id resolved at the given epoch.
+     * 
+     * @param id     the ref id.
+     * @param epoch  the epoch.
+     * @return the slot or -1 if it is not resolved at the epoch.
+     */
+    int find(int id, int epoch) {
+        int index = slotOf(id);
+        return ((slotIds[index] == id + 1) && (slotEpochs[index] == epoch)) ? index : -1;
+    }
+    
+    /**
+     * Returns the provider in the given slot.
+     * 
+     * @param slot  the slot returned by {@link #find(int, int)}.
+     * @return the provider -- may be {@code null}.
+     */
+    Provider providerAt(int slot) {
+        return slotProviders[slot];
+    }
+    
+    /**
+     * Put the provider of the given ref id resolved at the given epoch.
+     * 
+     * @param id        the ref id.
+     * @param epoch     the epoch.
+     * @param provider  the provider -- may be {@code null}.
+     */
+    void put(int id, int epoch, Provider provider) {
+        int index = slotOf(id);
+        if (slotIds[index] == 0) {
+            // Keep the load factor at most half so there is always an empty slot to stop the probing.
+            if ((count + 1)*2 > slotIds.length) {
+                rehash(epoch);
+                index = slotOf(id);
+            }
+            slotIds[index] = id + 1;
+            count++;
+        }
+        slotEpochs[index]    = epoch;
+        slotProviders[index] = provider;
+    }
+    
+    // Only the entries of the given epoch are kept -- the others would be resolved again anyway.
+    private void rehash(int epoch) {
+        int[]      oldIds       = slotIds;
+        int[]      oldEpochs    = slotEpochs;
+        Provider[] oldProviders = slotProviders;
+        
+        int live = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            if ((oldIds[i] != 0) && (oldEpochs[i] == epoch)) {
+                live++;
+            }
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < (live + 1)*4) {
+            capacity <<= 1;
+        }
+        
+        slotIds       = new int[capacity];
+        slotEpochs    = new int[capacity];
+        slotProviders = new Provider[capacity];
+        mask          = capacity - 1;
+        count         = live;
+        for (int i = 0; i < oldIds.length; i++) {
+            if ((oldIds[i] != 0) && (oldEpochs[i] == epoch)) {
+                int index = slotOf(oldIds[i] - 1);
+                slotIds[index]       = oldIds[i];
+                slotEpochs[index]    = epoch;
+                slotProviders[index] = oldProviders[i];
+            }
+        }
+    }
+    
+}
@@ -16,9 +16,12 @@
 package directget.get;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import directget.get.run.HandledFailable;
+import directget.get.run.ParallelRun;
 import directget.get.run.Wrapper;
 import directget.get.run.session.AsyncSessionBuilder;
 import directget.get.run.session.SyncNoCheckExceptionSessionBuilder;
@@ -236,6 +239,37 @@ public class Run {
         return new SyncSessionBuilder().asynchronously();
     }
     
+    /**
+     * Process items in parallel with the Get of this thread. 
+     * 
+     * @return a parallel run.
+     **/
+    public static ParallelRun parallel() {
+        return new ParallelRun();
+    }
+    
+    /**
+     * Map the items in parallel with the Get of this thread -- the results are in the order of the items.
+     * 
+     * @param items 
+     * @param mapper 
+     * @return the results.
+     **/
+    public static <T, R> List<R> parallel(Collection<? extends T> items, Function<? super T, ? extends R> mapper) {
+        return new ParallelRun().map(items, mapper);
+    }
+    
+    /**
+     * Map the items in parallel with the Get of this thread -- the results are in the order of the items.
+     * 
+     * @param items 
+     * @param mapper 
+     * @return the results.
+     **/
+    public static <T, R> List<R> parallel(Stream<? extends T> items, Function<? super T, ? extends R> mapper) {
+        return new ParallelRun().map(items, mapper);
+    }
+    
     /**
      * Run the session now. 
      * 
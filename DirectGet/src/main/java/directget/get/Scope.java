@@ -17,15 +17,23 @@ package directget.get;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import directget.get.exceptions.AppScopeAlreadyInitializedException;
+import directget.get.run.Named;
 import directget.get.supportive.Provider;
+import directget.get.supportive.ProviderStackMap;
 import dssb.callerid.impl.CallerId;
 import lombok.val;
 
@@ -54,26 +62,53 @@ public class Scope {
     
     private final Scope parentScope;
     
-    final ThreadLocal<GetInstance> threadGet;
+    /** The outer most scope -- the only scope whose configuration can change. */
+    private final Scope rootScope;
+    
+    /** The index of the slot of this scope in {@link GetThread} -- reused once this scope is garbage collected. */
+    final int index = ScopeIndexes.acquire(this);
+    
+    /** The Gets of the threads that are not {@link GetThread}. */
+    private final ThreadLocal<GetInstance> threadGet;
+    
+    /** The scopes with a Get in {@link #threadGet} of the current thread -- so they can all be reset. */
+    private static final ThreadLocal<Set<Scope>> threadScopes
+            = ThreadLocal.withInitial(() -> Collections.newSetFromMap(new WeakHashMap<>()));
     
     private volatile Configuration config;
     
     private volatile List<StackTraceElement> stackTraceAtCreation = null;
     
+    /** The epoch of the configuration -- changed every time the configuration is changed. */
+    private volatile int configEpoch = 0;
+    
+    /** The configuration epoch that {@link #isListenerConfigured} was checked at. */
+    private volatile int listenerEpoch = -1;
+    
+    private volatile boolean isListenerConfigured = false;
+    
+    /** The winning providers of the refs when this scope is frozen -- {@code null} if not frozen. */
+    private volatile ProviderTable frozenProviders = null;
+    
+    /** The providers inherited by the sub scopes -- created when first needed. */
+    private volatile InheritedProviders inheritedProviders = null;
+    
     // For AppScope only.
     Scope() {
         this.name = APP_SCOPE_NAME;
         this.parentScope = null;
+        this.rootScope = this;
         this.config = DEFAULT_CONFIG;
-        this.threadGet = ThreadLocal.withInitial(() -> new GetInstance(this));
+        this.threadGet = ThreadLocal.withInitial(this::newThreadGet);
     }
     
     // For other scope.
     Scope(String name, Scope parentScope, Configuration config) {
         this.name = Optional.ofNullable(name).orElse("Scope:" + this.getClass().getName());
         this.parentScope = parentScope;
+        this.rootScope = (parentScope != null) ? parentScope.rootScope : this;
         this.config = Optional.ofNullable(config).orElseGet(Configuration::new);
-        this.threadGet = ThreadLocal.withInitial(() -> new GetInstance(this));
+        this.threadGet = ThreadLocal.withInitial(this::newThreadGet);
     }
     
     // -- For testing only --
@@ -84,8 +119,12 @@ public class Scope {
             if (!CallerId.instance.isLocalCall())
                 return;
             
-            config = DEFAULT_CONFIG;
-            stackTraceAtCreation = null;
+            synchronized (lock) {
+                config = DEFAULT_CONFIG;
+                stackTraceAtCreation = null;
+                frozenProviders = null;
+                configEpoch++;
+            }
             ProposedConfiguration.instance.reset();
         }
     }
@@ -114,7 +153,11 @@ public class Scope {
                         try {
                             config = forceDictate((newConfig != null) ? newConfig : proposedConfiguration.getConfiguration());
                             stackTraceAtCreation = unmodifiableList(asList(new Throwable().getStackTrace()));
+                            configEpoch++;
                             isInitializedHere = true;
+                            if (isToFreeze()) {
+                                freeze();
+                            }
                         } finally {
                             isInitializing.set(false);
                         }
@@ -127,6 +170,69 @@ public class Scope {
         return isInitializedHere;
     }
     
+    private boolean isToFreeze() {
+        val freezeProvider = config.getProvider(App.freezeInProduction);
+        val modeProvider   = config.getProvider(App.mode);
+        if ((freezeProvider == null) || (modeProvider == null)) {
+            return false;
+        }
+        
+        val isToFreeze = Boolean.TRUE.equals(freezeProvider.get());
+        return isToFreeze && AppMode.PROD.is(modeProvider.get());
+    }
+    
+    /**
+     * Freeze this scope -- determine the provider of all the refs in the configuration once.
+     * 
+     * This is called when the App scope is initialized in PROD mode with {@link App#freezeInProduction} and by tests.
+     */
+    void freeze() {
+        val noStacks  = new ProviderStackMap();
+        val providers = config.getRefs()
+                .map(ref -> determineFrozenProvider(ref, noStacks))
+                .filter(Objects::nonNull)
+                .collect(toList());
+        val providerTable = new ProviderTable(providers);
+        // Only the App scope can be linked as the ref suppliers get their values from it.
+        frozenProviders = (this == App.scope) ? linkRefSuppliers(providerTable) : providerTable;
+    }
+    
+    private Provider<?> determineFrozenProvider(Ref<?> ref, ProviderStackMap noStacks) {
+        return Preferability.determineProvider(ref, parentScope, this, noStacks, null);
+    }
+    
+    /**
+     * Link the providers that get their values from other refs directly to the winning providers of those refs --
+     *   following the chain so a chain of refs becomes one link.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static ProviderTable linkRefSuppliers(ProviderTable providerTable) {
+        val linkedProviders = providerTable.providers().map(provider -> {
+            Provider target = provider;
+            // Bounded so a cycle does not loop forever.
+            for (int i = 0; (i < providerTable.size()) && (target.getSupplier() instanceof Named.RefSupplier); i++) {
+                val nextRef      = ((Named.RefSupplier)target.getSupplier()).getRef();
+                val nextProvider = providerTable.get(nextRef);
+                if (nextProvider == null) {
+                    break;
+                }
+                target = nextProvider;
+            }
+            return (target != provider) ? provider.linkedTo(target) : provider;
+        }).collect(toList());
+        return new ProviderTable(linkedProviders);
+    }
+    
+    /** @return {@code true} if this scope is frozen. */
+    public final boolean isFrozen() {
+        return frozenProviders != null;
+    }
+    
+    /** @return the winning providers of the refs in the configuration or {@code null} if this scope is not frozen. */
+    final ProviderTable getFrozenProviders() {
+        return frozenProviders;
+    }
+    
     boolean isInitialized() {
         return config != DEFAULT_CONFIG;
     }
@@ -149,6 +255,119 @@ public class Scope {
         return this.parentScope;
     }
     
+    /**
+     * Returns the epoch of the configuration of this scope and its parents.
+     * 
+     * The value changes every time the configuration of this scope or any of its parent is changed, so the cached
+     *   provider can be checked for its validity with one comparison. Only the configuration of the root scope can
+     *   change so this is the epoch of the root scope.
+     * 
+     * @return the configuration epoch.
+     */
+    final int getConfigEpoch() {
+        return rootScope.configEpoch;
+    }
+    
+    /**
+     * Check if the DetermineProviderListener is configured for this scope (by the ref, this scope or its parents).
+     * 
+     * The result is cached until the configuration is changed. A listener may still be substituted in.
+     * 
+     * @return {@code true} if the listener is configured.
+     */
+    final boolean isListenerConfigured() {
+        val epoch = getConfigEpoch();
+        if (listenerEpoch != epoch) {
+            isListenerConfigured = checkListenerConfigured();
+            listenerEpoch        = epoch;
+        }
+        return isListenerConfigured;
+    }
+    
+    private boolean checkListenerConfigured() {
+        if (Preferability.DefaultListener.getProvider() != null) {
+            return true;
+        }
+        if (config.hasProvider(Preferability.DefaultListener)) {
+            return true;
+        }
+        return (parentScope != null) && (parentScope.getInheritedProvider(Preferability.DefaultListener) != null);
+    }
+    
+    /**
+     * Returns the provider that the sub scopes inherit from this scope and its parents.
+     * 
+     * The lookup cost does not depend on how deep the scope is.
+     * 
+     * @param ref  the ref.
+     * @return the provider or {@code null} if none of the scopes in the chain has a provider for the ref.
+     */
+    final <T> Provider<T> getInheritedProvider(Ref<T> ref) {
+        return getInheritedProviders().get(ref);
+    }
+    
+    /** @return the refs configured in this scope and its parents. */
+    @SuppressWarnings("rawtypes")
+    final Stream<Ref> getConfiguredRefs() {
+        return getInheritedProviders().providers().map(Provider::getRef);
+    }
+    
+    private ProviderTable getInheritedProviders() {
+        val epoch     = getConfigEpoch();
+        val inherited = inheritedProviders;
+        if ((inherited != null) && (inherited.epoch == epoch)) {
+            return inherited.providers;
+        }
+        
+        val providers = flatten();
+        inheritedProviders = new InheritedProviders(epoch, providers);
+        return providers;
+    }
+    
+    // The table of the parent is shared as is when this scope adds nothing to it.
+    private ProviderTable flatten() {
+        val ownProviders = config.getProviderTable();
+        if (parentScope == null) {
+            return ownProviders;
+        }
+        
+        val parentProviders = parentScope.getInheritedProviders();
+        if (ownProviders.size() == 0) {
+            return parentProviders;
+        }
+        if (parentProviders.size() == 0) {
+            return ownProviders;
+        }
+        
+        val providers = new LinkedHashMap<Integer, Provider<?>>();
+        parentProviders.providers().forEach(provider -> providers.put(provider.getRef().getId(), provider));
+        ownProviders.providers().forEach(provider -> {
+            providers.merge(provider.getRef().getId(), provider, Scope::determineInheritedProvider);
+        });
+        return new ProviderTable(providers.values());
+    }
+    
+    // Both providers are of the same ref (merged by the ref id) so they have the same type.
+    @SuppressWarnings("unchecked")
+    private static Provider<?> determineInheritedProvider(Provider<?> parentProvider, Provider<?> configProvider) {
+        val parent = (Provider<Object>)parentProvider;
+        val config = (Provider<Object>)configProvider;
+        return Preferability.determineInheritedProvider(parent, config);
+    }
+    
+    private static final class InheritedProviders {
+        
+        final int epoch;
+        
+        final ProviderTable providers;
+        
+        InheritedProviders(int epoch, ProviderTable providers) {
+            this.epoch     = epoch;
+            this.providers = providers;
+        }
+        
+    }
+    
     protected final Configuration getConfiguration() {
         ensureInitialized();
         return config;
@@ -167,19 +386,104 @@ public class Scope {
      *         scope. NOTE: capital 'G' is intentional.
      */
     public GetInstance get() {
+        val thread = Thread.currentThread();
+        if (thread instanceof GetThread) {
+            return ((GetThread)thread).getInstance(this);
+        }
         return threadGet.get();
     }
     
-    <T> Optional<T> doGetThe(Ref<T> ref) {
+    /** Discard the get for the current thread that is associated with this scope -- the next {@link #get()} creates a fresh one. */
+    public void resetGet() {
+        val thread = Thread.currentThread();
+        if (thread instanceof GetThread) {
+            ((GetThread)thread).setInstance(this, null);
+        } else if (threadScopes.get().remove(this)) {
+            threadGet.get().detach();
+            threadGet.remove();
+        }
+    }
+    
+    /**
+     * Discard the gets for the current thread of all the scopes -- the next {@link #get()} of each scope creates a
+     *   fresh one.
+     **/
+    public static void resetAllGets() {
+        val thread = Thread.currentThread();
+        if (thread instanceof GetThread) {
+            ((GetThread)thread).clearGets();
+        }
+        
+        val scopes = threadScopes.get();
+        for (val scope : scopes.toArray(new Scope[scopes.size()])) {
+            scope.threadGet.get().detach();
+            scope.threadGet.remove();
+        }
+        scopes.clear();
+    }
+    
+    private GetInstance newThreadGet() {
+        threadScopes.get().add(this);
+        return new GetInstance(this);
+    }
+    
+    /** Set the get of the current thread to the ThreadLocal. */
+    private void setThreadGet(GetInstance get) {
+        threadGet.set(get);
+        threadScopes.get().add(this);
+    }
+    
+    /** Run the runnable with the given get as the get for the current thread -- the current one is restored after. */
+    void runWithGet(GetInstance get, Runnable runnable) {
+        val previous = get();
+        setGet(get);
+        if (previous != get) {
+            previous.detach();
+        }
+        try {
+            runnable.run();
+        } finally {
+            setGet(previous);
+            if (previous != get) {
+                get.detach();
+            }
+        }
+    }
+    
+    /** Set the get for the current thread that is associated with this scope. */
+    void setGet(GetInstance get) {
+        val thread = Thread.currentThread();
+        if (thread instanceof GetThread) {
+            ((GetThread)thread).setInstance(this, get);
+        } else {
+            setThreadGet(get);
+        }
+    }
+    
+    /**
+     * Returns the value of the given ref as configured for this scope -- the substitutions of the current thread are
+     *   not applied.
+     * 
+     * @param ref  the ref.
+     * @return the configured value or {@code null} if there is none.
+     **/
+    public <T> T getConfiguredValue(Ref<T> ref) {
+        initIfAbsent(null);
+        
+        val provider = Preferability.determineProvider(ref, parentScope, this, new ProviderStackMap(), null);
+        return (provider != null) ? provider.get() : null;
+    }
+    
+    <T> T doGetThe(Ref<T> ref) {
         initIfAbsent(null);
         
         val currentGet = this.get();
         val provider = currentGet.getProvider(ref);
         if (provider != null) {
-            return Optional.ofNullable(provider.get());
+            return provider.get();
         }
         
-        return Optional.empty();
+        return null;
     }
     
     /** {@inheritDoc} */
@@ -0,0 +1,79 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The indexes of the scope slots in {@link GetThread}.
+ * 
+ * The index of a scope is reused once the scope is garbage collected so the slots only grow with the number of the
+ *   scopes alive at the same time. A collected scope cannot have a Get left in any slot as the Get refers to its scope.
+ * 
+ * @author NawaMan
+ */
+final class ScopeIndexes {
+    
+    private static final ReferenceQueue<Scope> released = new ReferenceQueue<>();
+    
+    // Keep the references reachable until they are enqueued.
+    private static final Set<IndexReference> references = new HashSet<>();
+    
+    private static final ArrayDeque<Integer> freeIndexes = new ArrayDeque<>();
+    
+    private static int nextIndex = 0;
+    
+    private ScopeIndexes() {
+    }
+    
+    /**
+     * Returns an index for the given scope -- a released one if any.
+     * 
+     * @param scope  the scope.
+     * @return the index.
+     */
+    static synchronized int acquire(Scope scope) {
+        reclaim();
+        
+        int index = freeIndexes.isEmpty() ? nextIndex++ : freeIndexes.pop();
+        references.add(new IndexReference(scope, index));
+        return index;
+    }
+    
+    private static void reclaim() {
+        IndexReference reference;
+        while ((reference = (IndexReference)released.poll()) != null) {
+            references.remove(reference);
+            freeIndexes.push(reference.index);
+        }
+    }
+    
+    private static final class IndexReference extends PhantomReference<Scope> {
+        
+        final int index;
+        
+        IndexReference(Scope scope, int index) {
+            super(scope, released);
+            this.index = index;
+        }
+        
+    }
+    
+}
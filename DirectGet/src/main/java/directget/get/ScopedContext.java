@@ -0,0 +1,99 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.function.Supplier;
+
+import directget.get.supportive.ProviderStackMap;
+import directget.get.supportive.RefToBoolean;
+import directget.get.supportive.SubstitutionSet;
+
+/**
+ * Carrier of the substitution bound to the running code (not to the thread) -- only available on Java 25 or later.
+ * 
+ * On Java 25 or later (the version from {@code src/main/java25} of the multi-release jar), the substitution can be
+ *   bound with {@code java.lang.ScopedValue} as an immutable frame. The frame is inherited by the subtasks forked
+ *   within it (with {@code StructuredTaskScope}) without copying. This is turned on by configuring {@link #enabled}
+ *   for the App scope -- once on, the substitution done by {@link GetInstance#substitute(SubstitutionSet, Supplier)}
+ *   (so by {@link Run#with}) is bound this way.
+ * 
+ * This is the Java 8 version of this class -- nothing is ever bound and the substitution is always kept by the Get
+ *   of the thread.
+ * 
+ * @author NawaMan
+ */
+public final class ScopedContext {
+    
+    /** Whether the substitution should be bound with ScopedValue when supported - Default to false. */
+    public static final RefToBoolean enabled = Ref.toBoolean("ScopedContext.enabled", false);
+    
+    private ScopedContext() {
+    }
+    
+    /** @return {@code true} if this JVM supports binding the substitution with ScopedValue. */
+    public static boolean isSupported() {
+        return false;
+    }
+    
+    /**
+     * Run the runnable with the given substitution bound to it.
+     * 
+     * @param scope         the scope of the substitution.
+     * @param substitution  the substitution.
+     * @param runnable      the runnable body.
+     */
+    public static void run(Scope scope, SubstitutionSet substitution, Runnable runnable) {
+        scope.get().substitute(substitution, runnable);
+    }
+    
+    /**
+     * Run the supplier with the given substitution bound to it.
+     * 
+     * @param scope         the scope of the substitution.
+     * @param substitution  the substitution.
+     * @param supplier      the supplier body.
+     * @return the result of the supplier.
+     */
+    public static <V> V call(Scope scope, SubstitutionSet substitution, Supplier<V> supplier) {
+        return scope.get().substitute(substitution, supplier);
+    }
+    
+    /** @return {@code true} if the substitution is to be bound with ScopedValue. */
+    static boolean isEnabled() {
+        return false;
+    }
+    
+    /**
+     * Check if there is a substitution of the given scope bound to the running code.
+     * 
+     * @param scope  the scope.
+     * @return {@code true} if there is one.
+     */
+    public static boolean isBound(Scope scope) {
+        return false;
+    }
+    
+    /**
+     * Returns the substitution of the given scope bound to the running code.
+     * 
+     * @param scope  the scope.
+     * @return the stacks of the bound substitution or {@code null} if there is none.
+     */
+    static ProviderStackMap current(Scope scope) {
+        return null;
+    }
+    
+}
@@ -0,0 +1,132 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import lombok.val;
+
+/**
+ * Immutable snapshot of the values of refs resolved at once.
+ * 
+ * Reading a value from the snapshot is a lookup of a small open-addressing table of the ref ids -- no resolution and
+ *   no allocation. The arrays are as long as the number of the refs (not the largest ref id). The snapshot can be
+ *   handed to other threads as a consistent view of the values at the time it was taken.
+ * 
+ * @author NawaMan
+ */
+@SuppressWarnings("rawtypes")
+public final class Snapshot {
+    
+    /** The refs -- each one only once. */
+    private final Ref[] refs;
+    
+    /** The values in the same order as the refs. */
+    private final Object[] values;
+    
+    /** The ref id (plus one) of each slot -- zero for the empty slot. */
+    private final int[] slotIds;
+    
+    /** The index (in refs and values) of each slot. */
+    private final int[] slotIndexes;
+    
+    private final int mask;
+    
+    Snapshot(Ref[] refs, Object[] values) {
+        // Keep the load factor at most half so there is always an empty slot to stop the probing.
+        int capacity = 2;
+        while (capacity < refs.length*2) {
+            capacity <<= 1;
+        }
+        
+        this.refs        = refs;
+        this.values      = values;
+        this.slotIds     = new int[capacity];
+        this.slotIndexes = new int[capacity];
+        this.mask        = capacity - 1;
+        
+        for (int i = 0; i < refs.length; i++) {
+            int id   = refs[i].getId();
+            int slot = slotOf(id);
+            while (slotIds[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slotIds[slot]     = id + 1;
+            slotIndexes[slot] = i;
+        }
+    }
+    
+    private int slotOf(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+    
+    // The index of the ref with the given id -- -1 if not in this snapshot.
+    private int indexOf(int id) {
+        int slotId = id + 1;
+        int slot   = slotOf(id);
+        while (true) {
+            int thisId = slotIds[slot];
+            if (thisId == slotId) {
+                return slotIndexes[slot];
+            }
+            if (thisId == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    /**
+     * Check if the value of the given ref is in this snapshot.
+     * 
+     * @param ref  the ref.
+     * @return {@code true} if the snapshot has the value for the ref.
+     */
+    public boolean has(Ref<?> ref) {
+        return indexOf(ref.getId()) != -1;
+    }
+    
+    /**
+     * Returns the value of the given ref at the time the snapshot was taken.
+     * 
+     * @param ref  the ref.
+     * @return the value or {@code null} if the ref is not in this snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T the(Ref<T> ref) {
+        val index = indexOf(ref.getId());
+        return (index != -1) ? (T)values[index] : null;
+    }
+    
+    /** @return the refs in this snapshot. */
+    public Stream<Ref> getRefs() {
+        return Arrays.stream(refs);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        val pairs = IntStream.range(0, refs.length)
+                .mapToObj(i -> refs[i] + "=" + values[i])
+                .collect(Collectors.joining(", "));
+        return "Snapshot(" + pairs + ")";
+    }
+    
+}
@@ -15,16 +15,16 @@
 //  ========================================================================
 package directget.get.retains;
 
-import static directget.get.Get.the;
+import static directget.get.Get.longOf;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
+import java.util.function.LongSupplier;
 
 import dssb.utils.common.Nulls;
 import directget.get.Ref;
-import directget.get.supportive.RefTo;
+import directget.get.supportive.RefToLong;
 import lombok.val;
 import lombok.experimental.ExtensionMethod;
 
@@ -40,11 +40,11 @@ import lombok.experimental.ExtensionMethod;
 public class ForTimeRetainChecker<V> implements Predicate<V> {
     
     /** Ref for current time in milliseconds. */
-    static final RefTo<Long> currentTimeMillis
-            = Ref.to(Long.class, ()->Long.valueOf(System.currentTimeMillis()));
+    static final RefToLong currentTimeMillis
+            = Ref.toLong("currentTimeMillis", System::currentTimeMillis);
     
-    static final Supplier<Long> nextExpire(long time, TimeUnit unit) {
-        return ()->the(currentTimeMillis) + unit.toMillis(time);
+    static final LongSupplier nextExpire(long time, TimeUnit unit) {
+        return ()->longOf(currentTimeMillis) + unit.toMillis(time);
     }
     
     private final AtomicLong expiredValue;
@@ -76,7 +76,7 @@ public class ForTimeRetainChecker<V> implements Predicate<V> {
      *          the time unit.
      */
     public ForTimeRetainChecker(Long startMilliseconds, long time, TimeUnit unit) {
-        long startTime = startMilliseconds.orGet(nextExpire(time, unit));
+        long startTime = (startMilliseconds != null) ? startMilliseconds : nextExpire(time, unit).getAsLong();
         
         this.expiredValue = new AtomicLong(startTime);
         this.time = time;
@@ -94,10 +94,10 @@ public class ForTimeRetainChecker<V> implements Predicate<V> {
     
     @Override
     public boolean test(V value) {
-        val currentTime = the(currentTimeMillis);
+        val currentTime = longOf(currentTimeMillis);
         val hasExpires = currentTime >= expiredValue.get();
         if (hasExpires) {
-            expiredValue.set(nextExpire(time, unit).get());
+            expiredValue.set(nextExpire(time, unit).getAsLong());
         }
         return !hasExpires;
     }
@@ -15,9 +15,15 @@
 //  ========================================================================
 package directget.get.run;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicReference;
 
+import directget.get.supportive.NamedExecutors;
+import directget.get.supportive.RefTo;
 import dssb.failable.Failable;
 import dssb.utils.common.Nulls;
 import lombok.val;
@@ -33,17 +39,67 @@ public class Fork {
     
     private static final Failable.Consumer<Session, Throwable> joinSession = Session::join;
     
+    private static final ThreadLocal<Session> runningSession = new ThreadLocal<>();
+    
     private ThreadLocal<Session> forkSession = new ThreadLocal<>();
     
+    private volatile RefTo<Executor> executorRef = null;
+    
     /** Constructor. */
     public Fork() {
         
     }
     
+    /**
+     * Run the async sessions joined with this fork on the named executor (see {@link NamedExecutors}) -- unless the
+     *   session specifies its own.
+     * 
+     * @param executorName  the name of the executor.
+     * @return this fork.
+     **/
+    public Fork on(String executorName) {
+        return on(NamedExecutors.get(executorName));
+    }
+    
+    /**
+     * Run the async sessions joined with this fork on the executor of the given ref -- unless the session specifies
+     *   its own.
+     * 
+     * @param executorRef  the ref of the executor.
+     * @return this fork.
+     **/
+    public Fork on(RefTo<Executor> executorRef) {
+        this.executorRef = executorRef;
+        return this;
+    }
+    
+    /** @return the ref of the executor for the async sessions joined with this fork -- {@code null} for the default. */
+    public RefTo<Executor> getExecutorRef() {
+        return executorRef;
+    }
+    
     <T extends Throwable> void setSession(Session fork) {
         this.forkSession.set(fork);
     }
     
+    /** @return the session of the latest run of this thread -- {@code null} if there is none. */
+    public Session getSession() {
+        return this.forkSession.get();
+    }
+    
+    /**
+     * Report the problem of the session running on this thread -- used by the runs that handle their own problems
+     *   (like completing a future with it) so the session still knows that it fails.
+     * 
+     * @param problem  the problem.
+     **/
+    public static void reportProblem(Throwable problem) {
+        val session = runningSession.get();
+        if ((session != null) && (problem != null)) {
+            session.problem.compareAndSet(null, problem);
+        }
+    }
+    
     /**
      * Run something. 
      * 
@@ -56,9 +112,38 @@ public class Fork {
         return fork.runnable();
     }
     
+    /**
+     * Set the task that runs the latest run -- joining then joins the task which, on a fork-join worker thread,
+     *   helps running the pending tasks instead of blocking.
+     * 
+     * @param task  the task.
+     **/
+    public void setTask(ForkJoinTask<?> task) {
+        val session = this.forkSession.get();
+        if (session != null) {
+            session.setTask(task);
+        }
+    }
+    
+    /**
+     * Set the result of the latest run -- the result is cancelled if the session is cancelled before it starts.
+     * 
+     * @param result  the result.
+     **/
+    public void setResult(CompletableFuture<?> result) {
+        val session = this.forkSession.get();
+        if (session != null) {
+            session.setResult(result);
+        }
+    }
+    
     /**
      * Join the latest run with this thread. 
      * 
+     * The problem of the run is rethrown -- this includes the problem of an async run that completes its future
+     *   exceptionally (see {@link #reportProblem(Throwable)}), so a failed async run fails its join as well as its
+     *   future. A checked problem is rethrown wrapped in a {@code FailableException}.
+     * 
      * @throws Throwable
      **/
     public void join() throws Throwable {
@@ -74,6 +159,22 @@ public class Fork {
         
         private final Runnable runnable;
         
+        private final CompletableFuture<Void> future = new CompletableFuture<Void>();
+        
+        private volatile ForkJoinTask<?> task = null;
+        
+        // Guarded by this.
+        private CompletableFuture<?> result = null;
+        
+        // Guarded by this.
+        private Thread runner = null;
+        
+        // Guarded by this.
+        private boolean isStarted = false;
+        
+        // Guarded by this.
+        private boolean isCancelled = false;
+        
         /**
          * Constructor 
          * 
@@ -90,23 +191,144 @@ public class Fork {
          **/
         public Runnable runnable() {
             return () -> {
+                synchronized (this) {
+                    if (isCancelled) {
+                        return;
+                    }
+                    isStarted = true;
+                    runner    = Thread.currentThread();
+                }
+                val outerSession = runningSession.get();
+                runningSession.set(this);
                 try {
                     runnable.run();
                 } catch (Throwable t) {
-                    problem.set(t);
+                    problem.compareAndSet(null, t);
                 } finally {
-                    latch.countDown();
+                    runningSession.set(outerSession);
+                    boolean wasCancelled;
+                    synchronized (this) {
+                        runner       = null;
+                        wasCancelled = isCancelled;
+                    }
+                    if (wasCancelled) {
+                        // Do not leak the interruption to the next run of this thread.
+                        Thread.interrupted();
+                        // Whatever the run ends with after the interruption, the session is cancelled.
+                        val cancellation = new CancellationException();
+                        cancellation.initCause(problem.get());
+                        problem.set(cancellation);
+                    }
+                    done();
                 }
             };
         }
         
+        private void done() {
+            latch.countDown();
+            val theProblem = problem.get();
+            if (theProblem != null) {
+                future.completeExceptionally(theProblem);
+            } else {
+                future.complete(null);
+            }
+        }
+        
+        /**
+         * Cancel this session -- the run is skipped if it is not yet started or interrupted if it is running.
+         * 
+         * @return {@code true} if the session was cancelled by this call.
+         **/
+        public boolean cancel() {
+            synchronized (this) {
+                if (isCancelled || isDone()) {
+                    return false;
+                }
+                isCancelled = true;
+                if (isStarted) {
+                    if (runner != null) {
+                        runner.interrupt();
+                    }
+                    return true;
+                }
+            }
+            problem.compareAndSet(null, new CancellationException());
+            val theTask = task;
+            if (theTask != null) {
+                theTask.cancel(false);
+            }
+            cancelResult();
+            done();
+            return true;
+        }
+        
+        /**
+         * Set the result of this session -- the result is cancelled if this session is cancelled before it starts.
+         * 
+         * @param result  the result.
+         **/
+        public void setResult(CompletableFuture<?> result) {
+            synchronized (this) {
+                this.result = result;
+            }
+            cancelResult();
+        }
+        
+        private void cancelResult() {
+            CompletableFuture<?> theResult;
+            synchronized (this) {
+                if (!isCancelled || isStarted) {
+                    return;
+                }
+                theResult = result;
+            }
+            if (theResult != null) {
+                theResult.cancel(false);
+            }
+        }
+        
+        /** @return {@code true} if the run of this session is done -- completed, failed or cancelled. */
+        public boolean isDone() {
+            return latch.getCount() == 0;
+        }
+        
+        /** @return {@code true} if this session was cancelled. */
+        public synchronized boolean isCancelled() {
+            return isCancelled;
+        }
+        
+        /** @return the problem of the run or {@code null} if there is none (or it is not done yet). */
+        public Throwable getProblem() {
+            return problem.get();
+        }
+        
+        /** @return the non-blocking view of the completion of this session -- completed exceptionally with its problem. */
+        public CompletableFuture<Void> toFuture() {
+            return future;
+        }
+        
+        /**
+         * Set the task that runs this session.
+         * 
+         * @param task  the task.
+         **/
+        public void setTask(ForkJoinTask<?> task) {
+            this.task = task;
+        }
+        
         /**
          * Join the latest run with the current thread.
          * 
-         * @throws Throwable
+         * @throws Throwable  the problem of the run -- including the one reported by the run (see
+         *                      {@link Fork#reportProblem(Throwable)}) or a {@code CancellationException}.
          **/
         public void join() throws Throwable {
-            latch.await();
+            val theTask = task;
+            if (theTask != null) {
+                theTask.quietlyJoin();
+            } else {
+                latch.await();
+            }
             Throwable theProblem = problem.get();
             if (theProblem != null) {
                 throw theProblem;
@@ -0,0 +1,289 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.run;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.val;
+
+/**
+ * A fork that keeps all the sessions run with it so they can be joined as a group.
+ * 
+ * The sessions run on their own by default. A group that is all-or-nothing can have the first failure of a session
+ *   cancel its siblings (see {@link #cancelOnFailure(boolean)}) -- this is not the default as it would keep
+ *   {@link #joinAny()} from seeing a success that comes after a failure. When joining, the first failure (in the order of the runs) is thrown and the other failures are added to it as the
+ *   suppressed exceptions. Running with a group is done the same way as with a fork -- for example,
+ *   {@code Asynchronously().joinWith(group).run(...)}.
+ * 
+ * @author NawaMan
+ **/
+public class ForkGroup extends Fork {
+    
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+    
+    private volatile boolean cancelOnFailure = false;
+    
+    /** Constructor. */
+    public ForkGroup() {
+        
+    }
+    
+    /**
+     * Specify if the first failure of a session should cancel the other sessions of this group -- default to false.
+     * 
+     * This is for the group that is joined with {@link #joinAll()} (or {@link #toFuture()}). When set, a success
+     *   that comes after a failure is cancelled so {@link #joinAny()} and {@link #toAnyFuture()} see the failure.
+     * 
+     * @param cancelOnFailure
+     * @return this group.
+     **/
+    public ForkGroup cancelOnFailure(boolean cancelOnFailure) {
+        this.cancelOnFailure = cancelOnFailure;
+        return this;
+    }
+    
+    /** @return {@code true} if the first failure of a session cancels the other sessions of this group. */
+    public boolean isCancelOnFailure() {
+        return cancelOnFailure;
+    }
+    
+    /**
+     * Run something as a new session of this group. 
+     * 
+     * @param runnable 
+     * @return the runnable.
+     **/
+    @Override
+    public Runnable run(Runnable runnable) {
+        val forked  = super.run(runnable);
+        val session = getSession();
+        sessions.add(session);
+        session.toFuture().whenComplete((result, problem) -> {
+            if ((problem != null) && !(problem instanceof CancellationException) && cancelOnFailure) {
+                cancelAll();
+            }
+        });
+        return forked;
+    }
+    
+    /** @return the sessions of this group -- in the order of the runs. */
+    public List<Session> getSessions() {
+        return Collections.unmodifiableList(sessions);
+    }
+    
+    /**
+     * Cancel all the sessions of this group that are not yet done.
+     * 
+     * @return the number of the sessions cancelled by this call.
+     **/
+    public int cancelAll() {
+        return cancel(sessions);
+    }
+    
+    /**
+     * Join all the sessions of this group. 
+     * 
+     * @throws Throwable
+     **/
+    @Override
+    public void join() throws Throwable {
+        joinAll();
+    }
+    
+    /**
+     * Join all the sessions of this group -- on a fork-join worker thread, this helps running the pending tasks.
+     * 
+     * @throws Throwable  the first failure with the other failures as its suppressed exceptions.
+     **/
+    public void joinAll() throws Throwable {
+        val group = new ArrayList<Session>(sessions);
+        for (Session session : group) {
+            try {
+                session.join();
+            } catch (Throwable problem) {
+                // Collected below.
+            }
+        }
+        val problem = problemOf(group);
+        if (problem != null) {
+            throw problem;
+        }
+    }
+    
+    /**
+     * Join all the sessions of this group within the given time -- the sessions still running are cancelled when the
+     *   time is up.
+     * 
+     * @param timeout
+     * @param unit
+     * @throws TimeoutException  if the time is up.
+     * @throws Throwable  the first failure with the other failures as its suppressed exceptions.
+     **/
+    public void joinAll(long timeout, TimeUnit unit) throws Throwable {
+        val group = new ArrayList<Session>(sessions);
+        await(allOf(group), group, timeout, unit);
+    }
+    
+    /**
+     * Join the first session of this group that completes successfully -- the others are then cancelled.
+     * 
+     * @throws Throwable  if all the sessions fail -- the first failure with the others as its suppressed exceptions.
+     **/
+    public void joinAny() throws Throwable {
+        val group = new ArrayList<Session>(sessions);
+        await(anyOf(group), group, -1, null);
+        cancel(group);
+    }
+    
+    /**
+     * Join the first session of this group that completes successfully within the given time -- the others are then
+     *   cancelled (as well as when the time is up).
+     * 
+     * @param timeout
+     * @param unit
+     * @throws TimeoutException  if the time is up.
+     * @throws Throwable  if all the sessions fail -- the first failure with the others as its suppressed exceptions.
+     **/
+    public void joinAny(long timeout, TimeUnit unit) throws Throwable {
+        val group = new ArrayList<Session>(sessions);
+        await(anyOf(group), group, timeout, unit);
+        cancel(group);
+    }
+    
+    /**
+     * Returns the non-blocking view of the completion of all the current sessions of this group -- completed
+     *   exceptionally with the first failure (with the other failures as its suppressed exceptions).
+     * 
+     * @return the future.
+     **/
+    public CompletableFuture<Void> toFuture() {
+        return allOf(new ArrayList<Session>(sessions));
+    }
+    
+    /**
+     * Returns the non-blocking view of the first successful completion of the current sessions of this group --
+     *   completed exceptionally only when all of them fail.
+     * 
+     * @return the future.
+     **/
+    public CompletableFuture<Void> toAnyFuture() {
+        return anyOf(new ArrayList<Session>(sessions));
+    }
+    
+    private static CompletableFuture<Void> allOf(List<Session> group) {
+        val futures = group.stream()
+                .map(Session::toFuture)
+                .toArray(CompletableFuture<?>[]::new);
+        val all = new CompletableFuture<Void>();
+        CompletableFuture.allOf(futures).whenComplete((result, problem) -> {
+            complete(all, problemOf(group));
+        });
+        return all;
+    }
+    
+    private static CompletableFuture<Void> anyOf(List<Session> group) {
+        val any = new CompletableFuture<Void>();
+        if (group.isEmpty()) {
+            any.complete(null);
+            return any;
+        }
+        
+        val remaining = new AtomicInteger(group.size());
+        for (Session session : group) {
+            session.toFuture().whenComplete((result, problem) -> {
+                if (problem == null) {
+                    any.complete(null);
+                } else if (remaining.decrementAndGet() == 0) {
+                    complete(any, problemOf(group));
+                }
+            });
+        }
+        return any;
+    }
+    
+    private static void complete(CompletableFuture<Void> future, Throwable problem) {
+        if (problem != null) {
+            future.completeExceptionally(problem);
+        } else {
+            future.complete(null);
+        }
+    }
+    
+    private static void await(CompletableFuture<Void> future, List<Session> group, long timeout, TimeUnit unit)
+            throws Throwable {
+        try {
+            if (unit == null) {
+                future.get();
+            } else {
+                future.get(timeout, unit);
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            cancel(group);
+            throw e;
+        }
+    }
+    
+    private static int cancel(List<Session> group) {
+        int count = 0;
+        for (Session session : group) {
+            if (session.cancel()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // The first failure -- cancellations only count when there is no other failure.
+    private static Throwable problemOf(List<Session> group) {
+        Throwable first = null;
+        for (Session session : group) {
+            val problem = session.getProblem();
+            if ((problem != null) && (first == null || isCancellation(first) && !isCancellation(problem))) {
+                first = problem;
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+        
+        val suppressed = Arrays.asList(first.getSuppressed());
+        for (Session session : group) {
+            val problem = session.getProblem();
+            if ((problem == null) || (problem == first) || isCancellation(problem) || suppressed.contains(problem)) {
+                continue;
+            }
+            first.addSuppressed(problem);
+        }
+        return first;
+    }
+    
+    private static boolean isCancellation(Throwable problem) {
+        return problem instanceof CancellationException;
+    }
+    
+}
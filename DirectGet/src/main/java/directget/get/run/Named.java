@@ -164,9 +164,22 @@ public interface Named {
         /** The template for the name. */
         public static final String NAME_TEMPLATE = NAME + "(%s)";
         
+        private final T value;
+        
         /** Constructor */
         public ValueSupplier(T value) {
-            super(String.format(NAME, String.valueOf(value)), () -> value);
+            super(String.format(NAME, String.valueOf(value)), null);
+            this.value = value;
+        }
+        
+        /** @return the value. */
+        public final T getValue() {
+            return value;
+        }
+        
+        @Override
+        public final T get() {
+            return value;
         }
         
     }
@@ -179,11 +192,104 @@ public interface Named {
         /** The template for the name. */
         public static final String NAME_TEMPLATE = NAME + "(%s)";
         
+        private final Ref<T> ref;
+        
         /** Constructor */
         public RefSupplier(Ref<T> ref) {
-            super(String.format(NAME_TEMPLATE, ref.toString()), () -> Get.the(ref));
+            super(String.format(NAME_TEMPLATE, ref.toString()), null);
+            this.ref = ref;
+        }
+        
+        /** @return the ref whose value is supplied. */
+        public final Ref<T> getRef() {
+            return ref;
+        }
+        
+        @Override
+        public final T get() {
+            return Get.the(ref);
+        }
+        
+    }
+    
+    /** Named int supplier -- the value can be read without boxing. */
+    public static class IntSupplier extends Supplier<Integer> implements java.util.function.IntSupplier {
+        private final java.util.function.IntSupplier supplier;
+        
+        /** Constructors. */
+        public IntSupplier(String name, java.util.function.IntSupplier supplier) {
+            super(name, () -> supplier.getAsInt());
+            this.supplier = supplier;
+        }
+        
+        /** Constructors. */
+        public IntSupplier(int value) {
+            this(String.format(ValueSupplier.NAME_TEMPLATE, value), () -> value);
+        }
+        
+        public int getAsInt() {
+            return supplier.getAsInt();
+        }
+    }
+    
+    /** Named long supplier -- the value can be read without boxing. */
+    public static class LongSupplier extends Supplier<Long> implements java.util.function.LongSupplier {
+        private final java.util.function.LongSupplier supplier;
+        
+        /** Constructors. */
+        public LongSupplier(String name, java.util.function.LongSupplier supplier) {
+            super(name, () -> supplier.getAsLong());
+            this.supplier = supplier;
+        }
+        
+        /** Constructors. */
+        public LongSupplier(long value) {
+            this(String.format(ValueSupplier.NAME_TEMPLATE, value), () -> value);
+        }
+        
+        public long getAsLong() {
+            return supplier.getAsLong();
+        }
+    }
+    
+    /** Named double supplier -- the value can be read without boxing. */
+    public static class DoubleSupplier extends Supplier<Double> implements java.util.function.DoubleSupplier {
+        private final java.util.function.DoubleSupplier supplier;
+        
+        /** Constructors. */
+        public DoubleSupplier(String name, java.util.function.DoubleSupplier supplier) {
+            super(name, () -> supplier.getAsDouble());
+            this.supplier = supplier;
         }
         
+        /** Constructors. */
+        public DoubleSupplier(double value) {
+            this(String.format(ValueSupplier.NAME_TEMPLATE, value), () -> value);
+        }
+        
+        public double getAsDouble() {
+            return supplier.getAsDouble();
+        }
+    }
+    
+    /** Named boolean supplier -- the value can be read without boxing. */
+    public static class BooleanSupplier extends Supplier<Boolean> implements java.util.function.BooleanSupplier {
+        private final java.util.function.BooleanSupplier supplier;
+        
+        /** Constructors. */
+        public BooleanSupplier(String name, java.util.function.BooleanSupplier supplier) {
+            super(name, () -> supplier.getAsBoolean());
+            this.supplier = supplier;
+        }
+        
+        /** Constructors. */
+        public BooleanSupplier(boolean value) {
+            this(String.format(ValueSupplier.NAME_TEMPLATE, value), () -> value);
+        }
+        
+        public boolean getAsBoolean() {
+            return supplier.getAsBoolean();
+        }
     }
     
     /** Named consumer. **/
@@ -0,0 +1,213 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.run;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import directget.get.Run;
+import dssb.failable.FailableException;
+import lombok.val;
+
+/**
+ * This class offer a way to process many items in parallel with the Get of the caller.
+ * 
+ * The items are split into chunks and the chunks are run as a batch on the pool (see
+ *   {@link directget.get.run.session.AsyncSessionBuilder#runAll(Collection)}) -- so the Get of the caller is inherited
+ *   once per worker instead of once per item (which a parallel stream does not do at all).
+ * 
+ * @author NawaMan
+ **/
+public class ParallelRun {
+    
+    private static final int CHUNKS_PER_WORKER = 4;
+    
+    private ForkJoinPool pool = null;
+    
+    private int chunkSize = 0;
+    
+    private boolean ordered = true;
+    
+    /** Constructor. */
+    public ParallelRun() {
+        
+    }
+    
+    /**
+     * Run on the given pool -- the common pool is used by default.
+     * 
+     * @param pool
+     * @return this parallel run.
+     **/
+    public ParallelRun onPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+    
+    /**
+     * Specify the number of the items of each chunk -- by default, the items are split into a few chunks per worker.
+     * 
+     * @param chunkSize
+     * @return this parallel run.
+     **/
+    public ParallelRun chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+    
+    /**
+     * Collect the results in the order of the items (the default).
+     * 
+     * @return this parallel run.
+     **/
+    public ParallelRun ordered() {
+        this.ordered = true;
+        return this;
+    }
+    
+    /**
+     * Collect the results in the order that their chunks complete.
+     * 
+     * @return this parallel run.
+     **/
+    public ParallelRun unordered() {
+        this.ordered = false;
+        return this;
+    }
+    
+    /**
+     * Map all the items.
+     * 
+     * @param items
+     * @param mapper
+     * @return the results.
+     **/
+    public <T, R> List<R> map(Stream<? extends T> items, Function<? super T, ? extends R> mapper) {
+        return map(items.collect(toList()), mapper);
+    }
+    
+    /**
+     * Map all the items.
+     * 
+     * @param items
+     * @param mapper
+     * @return the results.
+     **/
+    public <T, R> List<R> map(Collection<? extends T> items, Function<? super T, ? extends R> mapper) {
+        return map(items, mapper, ordered);
+    }
+    
+    private <T, R> List<R> map(Collection<? extends T> items, Function<? super T, ? extends R> mapper,
+            boolean inOrder) {
+        val list = new ArrayList<T>(items);
+        if (list.isEmpty()) {
+            return new ArrayList<R>();
+        }
+        
+        val thePool      = (pool != null) ? pool : ForkJoinPool.commonPool();
+        val theChunkSize = (chunkSize != 0) ? chunkSize : autoChunkSize(list.size(), thePool.getParallelism());
+        if (theChunkSize >= list.size()) {
+            // Only one chunk -- this thread already has the Get.
+            return mapChunk(list, 0, list.size(), mapper);
+        }
+        
+        val chunks = new ArrayList<HandledFailable.Supplier<List<R>, RuntimeException>>();
+        for (int start = 0; start < list.size(); start += theChunkSize) {
+            val from = start;
+            val to   = Math.min(start + theChunkSize, list.size());
+            chunks.add(() -> mapChunk(list, from, to, mapper));
+        }
+        
+        val builder = Run.asynchronously()
+                .inheritAll()
+                .onForkJoinPool(thePool)
+                .maxParallelism(thePool.getParallelism());
+        CompletableFuture<List<List<R>>> results
+                = inOrder
+                ? builder.runAll(chunks)
+                : builder.runFirstN(chunks.size(), chunks);
+        return await(results).stream()
+                .flatMap(List::stream)
+                .collect(toList());
+    }
+    
+    /**
+     * Process all the items.
+     * 
+     * @param items
+     * @param consumer
+     **/
+    public <T> void forEach(Stream<? extends T> items, Consumer<? super T> consumer) {
+        forEach(items.collect(toList()), consumer);
+    }
+    
+    /**
+     * Process all the items.
+     * 
+     * @param items
+     * @param consumer
+     **/
+    public <T> void forEach(Collection<? extends T> items, Consumer<? super T> consumer) {
+        map(items, item -> {
+            consumer.accept(item);
+            return null;
+        }, false);
+    }
+    
+    private static int autoChunkSize(int size, int parallelism) {
+        val chunkCount = Math.max(1, parallelism) * CHUNKS_PER_WORKER;
+        return Math.max(1, (size + chunkCount - 1) / chunkCount);
+    }
+    
+    private static <T, R> List<R> mapChunk(List<T> items, int from, int to, Function<? super T, ? extends R> mapper) {
+        val results = new ArrayList<R>(to - from);
+        for (int i = from; i < to; i++) {
+            results.add(mapper.apply(items.get(i)));
+        }
+        return results;
+    }
+    
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            val cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new FailableException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailableException(e);
+        }
+    }
+    
+}
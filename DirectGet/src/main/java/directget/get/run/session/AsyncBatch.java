@@ -0,0 +1,162 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.run.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import directget.get.run.HandledFailable;
+import lombok.val;
+
+/**
+ * A batch of suppliers run by a limited number of lanes -- each lane is one async run that keeps taking the next
+ *   supplier of the batch until there is no more or the batch is done.
+ * 
+ * The batch is done when enough suppliers succeed or when too many of them fail for that to happen. The first
+ *   failure is then used with the other failures as its suppressed exceptions.
+ * 
+ * @param <R> the result type.
+ * 
+ * @author NawaMan
+ **/
+@SuppressWarnings("rawtypes")
+class AsyncBatch<R> {
+    
+    private final List<HandledFailable.Supplier> suppliers;
+    
+    private final int needed;
+    
+    private final boolean inOrder;
+    
+    private final CompletableFuture<List<R>> future = new CompletableFuture<List<R>>();
+    
+    private final AtomicInteger next = new AtomicInteger(0);
+    
+    private final AtomicInteger activeLanes = new AtomicInteger(0);
+    
+    // Guarded by this.
+    private final Object[] results;
+    
+    // Guarded by this.
+    private final List<Object> completed = new ArrayList<Object>();
+    
+    // Guarded by this.
+    private final List<Throwable> problems = new ArrayList<Throwable>();
+    
+    /**
+     * Constructor.
+     * 
+     * @param suppliers  the suppliers.
+     * @param needed     the number of successes needed.
+     * @param inOrder    {@code true} if the results are in the order of the suppliers -- otherwise, in the order of
+     *                     completion.
+     */
+    AsyncBatch(List<HandledFailable.Supplier> suppliers, int needed, boolean inOrder) {
+        this.suppliers = suppliers;
+        this.needed    = Math.max(0, Math.min(needed, suppliers.size()));
+        this.inOrder   = inOrder;
+        this.results   = inOrder ? new Object[suppliers.size()] : null;
+    }
+    
+    /**
+     * Start the batch.
+     * 
+     * @param context         the context to run the lanes with.
+     * @param maxParallelism  the maximum number of the lanes.
+     * @return the future of the results.
+     */
+    CompletableFuture<List<R>> start(AsyncWrapperContext context, int maxParallelism) {
+        if (needed == 0) {
+            future.complete(new ArrayList<R>());
+            return future;
+        }
+        
+        val lanes = Math.max(1, Math.min(maxParallelism, suppliers.size()));
+        activeLanes.set(lanes);
+        for (int i = 0; i < lanes; i++) {
+            try {
+                context.run(this::runLane).whenComplete((result, problem) -> {
+                    if (problem != null) {
+                        laneFailed(problem);
+                    }
+                });
+            } catch (RuntimeException problem) {
+                // Like when the executor rejects the lane -- the other lanes still work on the batch.
+                laneFailed(problem);
+            }
+        }
+        return future;
+    }
+    
+    private void laneFailed(Throwable problem) {
+        if (activeLanes.decrementAndGet() == 0) {
+            synchronized (this) {
+                if (!future.isDone()) {
+                    future.completeExceptionally(problem);
+                }
+            }
+        }
+    }
+    
+    private Void runLane() {
+        int index;
+        while (!future.isDone() && ((index = next.getAndIncrement()) < suppliers.size())) {
+            try {
+                succeed(index, suppliers.get(index).get());
+            } catch (Throwable problem) {
+                fail(problem);
+            }
+        }
+        return null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private synchronized void succeed(int index, Object result) {
+        if (future.isDone()) {
+            return;
+        }
+        
+        if (inOrder) {
+            results[index] = result;
+        }
+        completed.add(result);
+        if (completed.size() == needed) {
+            val list = inOrder ? Arrays.asList(results) : completed;
+            future.complete((List<R>)Collections.unmodifiableList(new ArrayList<Object>(list)));
+        }
+    }
+    
+    private synchronized void fail(Throwable problem) {
+        if (future.isDone()) {
+            return;
+        }
+        
+        problems.add(problem);
+        if (problems.size() > (suppliers.size() - needed)) {
+            val first = problems.get(0);
+            problems.stream()
+                .skip(1)
+                .filter(each -> each != first)
+                .forEach(first::addSuppressed);
+            future.completeExceptionally(first);
+        }
+    }
+    
+}
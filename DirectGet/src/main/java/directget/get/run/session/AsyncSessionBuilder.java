@@ -17,13 +17,19 @@ package directget.get.run.session;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import directget.get.Ref;
 import directget.get.run.Fork;
 import directget.get.run.HandledFailable;
+import directget.get.supportive.NamedExecutors;
+import directget.get.supportive.RefTo;
 import dssb.failable.Failable;
+import lombok.val;
 
 /**
  * The wrapper for a new thread run.
@@ -41,6 +47,12 @@ public class AsyncSessionBuilder extends SessionBuilder<AsyncSessionBuilder> {
     
     Fork fork = null;
     
+    ForkJoinPool forkJoinPool = null;
+    
+    int maxParallelism = Integer.MAX_VALUE;
+    
+    RefTo<Executor> executorRef = null;
+    
     AsyncWrapper asyncWrapper = new AsyncWrapper(this);
     
     /** Default constructor. */
@@ -58,6 +70,51 @@ public class AsyncSessionBuilder extends SessionBuilder<AsyncSessionBuilder> {
         return this;
     }
     
+    /**
+     * Run on the named executor (see {@link NamedExecutors}) instead of {@link directget.get.Get#DefaultExecutor}.
+     * 
+     * This is ignored when the run is on a fork-join pool (see {@link #onForkJoinPool(ForkJoinPool)}).
+     **/
+    public AsyncSessionBuilder on(String executorName) {
+        return on(NamedExecutors.get(executorName));
+    }
+    
+    /** Run on the executor of the given ref instead of {@link directget.get.Get#DefaultExecutor}. */
+    public AsyncSessionBuilder on(RefTo<Executor> executorRef) {
+        this.executorRef = executorRef;
+        return this;
+    }
+    
+    /**
+     * Run on the common fork-join pool.
+     * 
+     * The run becomes a fork-join task so joining it with a fork (from a task of the same pool) helps running the
+     *   pending tasks instead of blocking the thread.
+     **/
+    public AsyncSessionBuilder onForkJoinPool() {
+        return onForkJoinPool(ForkJoinPool.commonPool());
+    }
+    
+    /** Run on the given fork-join pool. */
+    public AsyncSessionBuilder onForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+        return this;
+    }
+    
+    /**
+     * Limit the number of the suppliers of a batch (see {@link #runAll(Collection)}) that run at the same time.
+     * 
+     * The batch is run by that many async runs each taking the next supplier until all are done -- so the batch never
+     *   uses more threads than this and the wrappers are applied once per run instead of once per supplier.
+     **/
+    public AsyncSessionBuilder maxParallelism(int maxParallelism) {
+        if (maxParallelism <= 0) {
+            throw new IllegalArgumentException("maxParallelism must be positive: " + maxParallelism);
+        }
+        this.maxParallelism = maxParallelism;
+        return this;
+    }
+    
     /** Set this run to inherit all refs from the parent thread. */
     public AsyncSessionBuilder inheritAll() {
         inheritMass = true;
@@ -94,19 +151,55 @@ public class AsyncSessionBuilder extends SessionBuilder<AsyncSessionBuilder> {
     
     /** Build the session for later use. */
     public AsyncWrapperContext build() {
-        return new AsyncWrapperContext(failHandler, wrappers);
+        return new AsyncWrapperContext(failHandler, wrappers, fork);
     }
     
     /** Run the given supplier and return a value. */
-    public <R, T extends Throwable> CompletableFuture<R> run(HandledFailable.Supplier<R, T> supplier) {
+    public <R, T extends Throwable> GetFuture<R> run(HandledFailable.Supplier<R, T> supplier) {
         return build().run(supplier);
     }
     
     /** Run the session now. */
-    public <T extends Throwable> CompletableFuture<Void> run(Failable.Runnable<T> runnable) {
+    public <T extends Throwable> GetFuture<Void> run(Failable.Runnable<T> runnable) {
         return build().run(()->{
             runnable.run();
             return null;
         });
     }
+    
+    /**
+     * Run all the suppliers as a batch -- the result is the list of their results in the same order or the first
+     *   failure (with the others as its suppressed exceptions) as soon as one of them fails.
+     **/
+    public <R, T extends Throwable> CompletableFuture<List<R>> runAll(
+            Collection<? extends HandledFailable.Supplier<? extends R, T>> suppliers) {
+        return runBatch(suppliers, suppliers.size(), true);
+    }
+    
+    /**
+     * Run the suppliers as a batch until one of them succeeds -- the result is its result or the first failure (with
+     *   the others as its suppressed exceptions) if all of them fail.
+     **/
+    public <R, T extends Throwable> CompletableFuture<R> runAny(
+            Collection<? extends HandledFailable.Supplier<? extends R, T>> suppliers) {
+        CompletableFuture<List<R>> batch = runBatch(suppliers, 1, false);
+        return batch.thenApply(results -> results.isEmpty() ? null : results.get(0));
+    }
+    
+    /**
+     * Run the suppliers as a batch until the given number of them succeed -- the result is their results in the order
+     *   of completion or the first failure (with the others as its suppressed exceptions) as soon as too many of them
+     *   fail for that to happen.
+     **/
+    public <R, T extends Throwable> CompletableFuture<List<R>> runFirstN(int count,
+            Collection<? extends HandledFailable.Supplier<? extends R, T>> suppliers) {
+        return runBatch(suppliers, count, false);
+    }
+    
+    @SuppressWarnings("rawtypes")
+    private <R> CompletableFuture<List<R>> runBatch(Collection<? extends HandledFailable.Supplier> suppliers,
+            int needed, boolean inOrder) {
+        val batch = new AsyncBatch<R>(new ArrayList<HandledFailable.Supplier>(suppliers), needed, inOrder);
+        return batch.start(build(), maxParallelism);
+    }
 }
\ No newline at end of file
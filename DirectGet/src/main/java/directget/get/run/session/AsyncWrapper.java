@@ -15,11 +15,13 @@
 //  ========================================================================
 package directget.get.run.session;
 
-import java.util.function.Predicate;
+import java.util.concurrent.Executor;
 
 import directget.get.Get;
-import directget.get.Ref;
+import directget.get.GetInstance;
 import directget.get.run.Wrapper;
+import directget.get.supportive.RefFilter;
+import directget.get.supportive.RefTo;
 import lombok.val;
 
 /**
@@ -35,41 +37,46 @@ public class AsyncWrapper implements Wrapper {
         this.builder = builder;
     }
     
-    @SuppressWarnings("rawtypes")
     @Override
     public Runnable apply(Runnable runnable) {
-        Predicate<Ref> predicate = Get.INHERIT_NONE;
-        val isAll = Boolean.TRUE.equals(builder.inheritMass);
-        if (isAll) {
-            if (builder.excludedRefs.isEmpty()) {
-                predicate = Get.INHERIT_ALL;
-            } else {
-                predicate = ref -> !builder.excludedRefs.contains(ref);
-            }
-        } else {
-            val isNone = Boolean.TRUE.equals(builder.inheritMass);
-            if (isNone) {
-                if (builder.includedRefs.isEmpty()) {
-                    predicate = Get.INHERIT_NONE;
+        // Compile the filter once so the inheritance check is a bit test.
+        val isAll   = Boolean.TRUE.equals(builder.inheritMass);
+        val checker = isAll
+                    ? RefFilter.excluding(builder.excludedRefs)
+                    : RefFilter.including(builder.includedRefs);
+        val pool = builder.forkJoinPool;
+        if (pool != null) {
+            return () -> {
+                if (builder.fork != null) {
+                    val task = builder.get().runForkJoin(checker, pool, builder.fork.run(runnable));
+                    builder.fork.setTask(task);
                 } else {
-                    predicate = ref -> builder.includedRefs.contains(ref);
+                    builder.get().runForkJoin(checker, pool, runnable);
                 }
-            } else {
-                predicate = ref -> {
-                    return builder.includedRefs.contains(ref);
-                };
-            }
+            };
         }
-        val checker = predicate;
         if (builder.fork != null) {
             return () -> {
-                builder.get().runAsync(checker, builder.fork.run(runnable));
+                val get      = builder.get();
+                val executor = executorOf(get, builder.executorRef, builder.fork.getExecutorRef());
+                get.runAsync(checker, executor, builder.fork.run(runnable));
             };
         } else {
             return () -> {
-                builder.get().runAsync(checker, runnable);
+                val get      = builder.get();
+                val executor = executorOf(get, builder.executorRef, null);
+                get.runAsync(checker, executor, runnable);
             };
         }
     }
     
+    // The executor of the session, then of the fork, then the default one.
+    private static Executor executorOf(GetInstance get, RefTo<Executor> sessionRef, RefTo<Executor> forkRef) {
+        val executorRef
+                = (sessionRef != null) ? sessionRef
+                : (forkRef    != null) ? forkRef
+                : Get.DefaultExecutor;
+        return get.the(executorRef);
+    }
+    
 }
\ No newline at end of file
@@ -16,9 +16,13 @@
 package directget.get.run.session;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+import directget.get.App;
+import directget.get.CapturedGet;
+
+import directget.get.run.Fork;
 import directget.get.run.HandledFailable;
 import dssb.failable.Failable;
 import dssb.failable.FailableException;
@@ -31,26 +35,37 @@ import lombok.val;
  **/
 public class AsyncWrapperContext extends WrapperContext {
     
+    private final Fork fork;
+    
     @SuppressWarnings("rawtypes")
-    AsyncWrapperContext(Function<HandledFailable.Runnable, Runnable> failHandler, List<Function<Runnable, Runnable>> functions) {
+    AsyncWrapperContext(Function<HandledFailable.Runnable, Runnable> failHandler, List<Function<Runnable, Runnable>> functions, Fork fork) {
         super(failHandler, functions);
+        this.fork = fork;
     }
     
     /** Run the given supplier and return a value. */
-    public <R, T extends Throwable> CompletableFuture<R> start(HandledFailable.Supplier<R, T> supplier) {
+    public <R, T extends Throwable> GetFuture<R> start(HandledFailable.Supplier<R, T> supplier) {
         return run(supplier);
     }
     
-    /** Run the given supplier and return a value. */
+    /**
+     * Run the given supplier and return a value.
+     * 
+     * The dependent stages of the returned future run with the Get of the session (see {@link GetFuture}). A problem
+     *   of the supplier completes the future exceptionally and is also reported to the fork the session is joined with
+     *   -- so {@link Fork#join()} rethrows it. Cancelling the returned future cancels that session.
+     **/
     @SuppressWarnings("unchecked")
-    public <R, T extends Throwable> CompletableFuture<R> run(HandledFailable.Supplier<R, T> supplier) {
-        CompletableFuture<R> future = new CompletableFuture<R>();
+    public <R, T extends Throwable> GetFuture<R> run(HandledFailable.Supplier<R, T> supplier) {
+        GetFuture<R> future = new GetFuture<R>(new AtomicReference<CapturedGet>());
         val runnable = (HandledFailable.Runnable<T>) () -> {
+            future.setCapturedGet(App.Get().capture());
             try {
                 val theResult = supplier.get();
                 future.complete(theResult);
             } catch (Throwable t) {
                 future.completeExceptionally(t);
+                Fork.reportProblem(t);
             }
         };
         Runnable current = failHandler.apply(runnable);
@@ -63,6 +78,10 @@ public class AsyncWrapperContext extends WrapperContext {
         }
         try {
             current.run();
+            if (fork != null) {
+                fork.setResult(future);
+                future.setSession(fork.getSession());
+            }
         } catch (FailableException e) {
             Throwable cause = e.getCause();
             if (cause instanceof RuntimeException) {
@@ -0,0 +1,493 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.run.session;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import directget.get.App;
+import directget.get.CapturedGet;
+import directget.get.run.Fork.Session;
+import lombok.val;
+
+/**
+ * CompletableFuture that runs all its dependent stages (sync or async, on any executor) with the Get captured from
+ *   the session that produces it -- so {@code Get.the(...)} in the stages sees the substitution of the session.
+ * 
+ * The Get is captured once and shared by all the stages down the chain; each stage starts its own Get from it in
+ *   constant time (see {@link CapturedGet}). On Java 9 or later, every stage is created by
+ *   {@code newIncompleteFuture()} so the stages (including those of the methods not overridden here, like
+ *   {@code orTimeout} or {@code copy}) are GetFutures sharing the Get. On Java 8, each stage is relayed into one.
+ * 
+ * Cancelling the future of an async session joined with a fork also cancels the session (see {@link Session}).
+ * 
+ * @param <T> the result type.
+ * 
+ * @author NawaMan
+ **/
+public class GetFuture<T> extends CompletableFuture<T> {
+    
+    private final AtomicReference<CapturedGet> capturedGet;
+    
+    private volatile Session session = null;
+    
+    /** Constructs a future with the Get of the current thread. */
+    public GetFuture() {
+        this(new AtomicReference<CapturedGet>(App.Get().capture()));
+    }
+    
+    GetFuture(AtomicReference<CapturedGet> capturedGet) {
+        this.capturedGet = capturedGet;
+    }
+    
+    /**
+     * Returns a future that completes with the given stage and runs its dependent stages with the Get of the current
+     *   thread.
+     * 
+     * @param stage  the stage.
+     * @return the future.
+     **/
+    public static <T> GetFuture<T> of(CompletionStage<T> stage) {
+        val future = new GetFuture<T>();
+        stage.whenComplete(future::completeWith);
+        return future;
+    }
+    
+    /** @return the Get that the dependent stages run with -- {@code null} if it is not captured (yet). */
+    public CapturedGet getCapturedGet() {
+        return capturedGet.get();
+    }
+    
+    // Captured by the session on its thread -- once the substitution of the session is in place.
+    void setCapturedGet(CapturedGet captured) {
+        capturedGet.set(captured);
+    }
+    
+    // The session that produces this future -- cancelled with this future.
+    void setSession(Session session) {
+        this.session = session;
+        if (isCancelled() && (session != null)) {
+            session.cancel();
+        }
+    }
+    
+    /**
+     * Cancel this future and the session that produces it (if it is joined with a fork) -- the dependent stages are
+     *   completed exceptionally but their cancellation does not reach the session.
+     * 
+     * @param mayInterruptIfRunning  ignored -- the running session is always interrupted.
+     * @return {@code true} if this future is cancelled by this call.
+     **/
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        val isCancelled = super.cancel(mayInterruptIfRunning);
+        val theSession  = session;
+        if (isCancelled && (theSession != null)) {
+            theSession.cancel();
+        }
+        return isCancelled;
+    }
+    
+    /**
+     * Returns a new incomplete future that runs its dependent stages with the same Get.
+     * 
+     * This is the Java 9 method that CompletableFuture creates each of its stages with -- it is not annotated with
+     *   {@code Override} as this class is compiled for Java 8.
+     * 
+     * @return the new future.
+     **/
+    public <U> GetFuture<U> newIncompleteFuture() {
+        return new GetFuture<U>(capturedGet);
+    }
+    
+    /** @return this future -- its dependent stages run with the Get. */
+    @Override
+    public GetFuture<T> toCompletableFuture() {
+        return this;
+    }
+    
+    private void completeWith(T result, Throwable problem) {
+        if (problem != null) {
+            completeExceptionally(problem);
+        } else {
+            complete(result);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <U> GetFuture<U> next(CompletableFuture<U> stage) {
+        // Java 9 or later -- created by newIncompleteFuture() so there is nothing to relay.
+        if (stage instanceof GetFuture) {
+            return (GetFuture<U>)stage;
+        }
+        val next = new GetFuture<U>(capturedGet);
+        stage.whenComplete(next::completeWith);
+        return next;
+    }
+    
+    private <V> V callWithGet(Supplier<V> supplier) {
+        val captured = capturedGet.get();
+        return (captured != null) ? captured.call(supplier) : supplier.get();
+    }
+    
+    private <A, B> Function<A, B> withGetFn(Function<A, B> function) {
+        return a -> callWithGet(() -> function.apply(a));
+    }
+    
+    private <A, B, C> BiFunction<A, B, C> withGetBiFn(BiFunction<A, B, C> function) {
+        return (a, b) -> callWithGet(() -> function.apply(a, b));
+    }
+    
+    private <A> Consumer<A> withGetConsumer(Consumer<A> consumer) {
+        return a -> callWithGet(() -> {
+            consumer.accept(a);
+            return null;
+        });
+    }
+    
+    private <A, B> BiConsumer<A, B> withGetBiConsumer(BiConsumer<A, B> consumer) {
+        return (a, b) -> callWithGet(() -> {
+            consumer.accept(a, b);
+            return null;
+        });
+    }
+    
+    private Runnable withGetRunnable(Runnable runnable) {
+        return () -> callWithGet(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+    
+    //-- Apply --
+    
+    @Override
+    public <U> GetFuture<U> thenApply(Function<? super T, ? extends U> fn) {
+        return next(super.thenApply(withGetFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn) {
+        return next(super.thenApplyAsync(withGetFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn, Executor executor) {
+        return next(super.thenApplyAsync(withGetFn(fn), executor));
+    }
+    
+    //-- Accept --
+    
+    @Override
+    public GetFuture<Void> thenAccept(Consumer<? super T> action) {
+        return next(super.thenAccept(withGetConsumer(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> thenAcceptAsync(Consumer<? super T> action) {
+        return next(super.thenAcceptAsync(withGetConsumer(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> thenAcceptAsync(Consumer<? super T> action, Executor executor) {
+        return next(super.thenAcceptAsync(withGetConsumer(action), executor));
+    }
+    
+    //-- Run --
+    
+    @Override
+    public GetFuture<Void> thenRun(Runnable action) {
+        return next(super.thenRun(withGetRunnable(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> thenRunAsync(Runnable action) {
+        return next(super.thenRunAsync(withGetRunnable(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> thenRunAsync(Runnable action, Executor executor) {
+        return next(super.thenRunAsync(withGetRunnable(action), executor));
+    }
+    
+    //-- Both --
+    
+    @Override
+    public <U, V> GetFuture<V> thenCombine(CompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        return next(super.thenCombine(other, withGetBiFn(fn)));
+    }
+    
+    @Override
+    public <U, V> GetFuture<V> thenCombineAsync(CompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        return next(super.thenCombineAsync(other, withGetBiFn(fn)));
+    }
+    
+    @Override
+    public <U, V> GetFuture<V> thenCombineAsync(CompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn, Executor executor) {
+        return next(super.thenCombineAsync(other, withGetBiFn(fn), executor));
+    }
+    
+    @Override
+    public <U> GetFuture<Void> thenAcceptBoth(CompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action) {
+        return next(super.thenAcceptBoth(other, withGetBiConsumer(action)));
+    }
+    
+    @Override
+    public <U> GetFuture<Void> thenAcceptBothAsync(CompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action) {
+        return next(super.thenAcceptBothAsync(other, withGetBiConsumer(action)));
+    }
+    
+    @Override
+    public <U> GetFuture<Void> thenAcceptBothAsync(CompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action, Executor executor) {
+        return next(super.thenAcceptBothAsync(other, withGetBiConsumer(action), executor));
+    }
+    
+    @Override
+    public GetFuture<Void> runAfterBoth(CompletionStage<?> other, Runnable action) {
+        return next(super.runAfterBoth(other, withGetRunnable(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action) {
+        return next(super.runAfterBothAsync(other, withGetRunnable(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action, Executor executor) {
+        return next(super.runAfterBothAsync(other, withGetRunnable(action), executor));
+    }
+    
+    //-- Either --
+    
+    @Override
+    public <U> GetFuture<U> applyToEither(CompletionStage<? extends T> other, Function<? super T, U> fn) {
+        return next(super.applyToEither(other, withGetFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> applyToEitherAsync(CompletionStage<? extends T> other, Function<? super T, U> fn) {
+        return next(super.applyToEitherAsync(other, withGetFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> applyToEitherAsync(CompletionStage<? extends T> other, Function<? super T, U> fn,
+            Executor executor) {
+        return next(super.applyToEitherAsync(other, withGetFn(fn), executor));
+    }
+    
+    @Override
+    public GetFuture<Void> acceptEither(CompletionStage<? extends T> other, Consumer<? super T> action) {
+        return next(super.acceptEither(other, withGetConsumer(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> acceptEitherAsync(CompletionStage<? extends T> other, Consumer<? super T> action) {
+        return next(super.acceptEitherAsync(other, withGetConsumer(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> acceptEitherAsync(CompletionStage<? extends T> other, Consumer<? super T> action,
+            Executor executor) {
+        return next(super.acceptEitherAsync(other, withGetConsumer(action), executor));
+    }
+    
+    @Override
+    public GetFuture<Void> runAfterEither(CompletionStage<?> other, Runnable action) {
+        return next(super.runAfterEither(other, withGetRunnable(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> runAfterEitherAsync(CompletionStage<?> other, Runnable action) {
+        return next(super.runAfterEitherAsync(other, withGetRunnable(action)));
+    }
+    
+    @Override
+    public GetFuture<Void> runAfterEitherAsync(CompletionStage<?> other, Runnable action, Executor executor) {
+        return next(super.runAfterEitherAsync(other, withGetRunnable(action), executor));
+    }
+    
+    //-- Compose --
+    
+    @Override
+    public <U> GetFuture<U> thenCompose(Function<? super T, ? extends CompletionStage<U>> fn) {
+        return next(super.thenCompose(withGetFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> thenComposeAsync(Function<? super T, ? extends CompletionStage<U>> fn) {
+        return next(super.thenComposeAsync(withGetFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> thenComposeAsync(Function<? super T, ? extends CompletionStage<U>> fn,
+            Executor executor) {
+        return next(super.thenComposeAsync(withGetFn(fn), executor));
+    }
+    
+    //-- Complete --
+    
+    @Override
+    public GetFuture<T> whenComplete(BiConsumer<? super T, ? super Throwable> action) {
+        return next(super.whenComplete(withGetBiConsumer(action)));
+    }
+    
+    @Override
+    public GetFuture<T> whenCompleteAsync(BiConsumer<? super T, ? super Throwable> action) {
+        return next(super.whenCompleteAsync(withGetBiConsumer(action)));
+    }
+    
+    @Override
+    public GetFuture<T> whenCompleteAsync(BiConsumer<? super T, ? super Throwable> action, Executor executor) {
+        return next(super.whenCompleteAsync(withGetBiConsumer(action), executor));
+    }
+    
+    @Override
+    public <U> GetFuture<U> handle(BiFunction<? super T, Throwable, ? extends U> fn) {
+        return next(super.handle(withGetBiFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> handleAsync(BiFunction<? super T, Throwable, ? extends U> fn) {
+        return next(super.handleAsync(withGetBiFn(fn)));
+    }
+    
+    @Override
+    public <U> GetFuture<U> handleAsync(BiFunction<? super T, Throwable, ? extends U> fn, Executor executor) {
+        return next(super.handleAsync(withGetBiFn(fn), executor));
+    }
+    
+    @Override
+    public GetFuture<T> exceptionally(Function<Throwable, ? extends T> fn) {
+        return next(super.exceptionally(withGetFn(fn)));
+    }
+    
+    //-- Java 9 or later -- not annotated with Override as this class is compiled for Java 8 --
+    
+    /**
+     * Complete this future with the value of the supplier run with the Get on the default async executor.
+     * 
+     * @param supplier  the supplier.
+     * @return this future.
+     **/
+    public GetFuture<T> completeAsync(Supplier<? extends T> supplier) {
+        CompletableFuture.runAsync(withGetRunnable(() -> completeBy(supplier)));
+        return this;
+    }
+    
+    /**
+     * Complete this future with the value of the supplier run with the Get on the given executor.
+     * 
+     * @param supplier  the supplier.
+     * @param executor  the executor.
+     * @return this future.
+     **/
+    public GetFuture<T> completeAsync(Supplier<? extends T> supplier, Executor executor) {
+        executor.execute(withGetRunnable(() -> completeBy(supplier)));
+        return this;
+    }
+    
+    private void completeBy(Supplier<? extends T> supplier) {
+        try {
+            complete(supplier.get());
+        } catch (Throwable problem) {
+            completeExceptionally(problem);
+        }
+    }
+    
+    /**
+     * Returns a stage that recovers from the problem of this future with the function run with the Get on the default
+     *   async executor.
+     * 
+     * @param fn  the function.
+     * @return the stage.
+     **/
+    public GetFuture<T> exceptionallyAsync(Function<Throwable, ? extends T> fn) {
+        return next(super.handleAsync(withGetBiFn((T result, Throwable problem) -> recover(result, problem, fn))));
+    }
+    
+    /**
+     * Returns a stage that recovers from the problem of this future with the function run with the Get on the given
+     *   executor.
+     * 
+     * @param fn        the function.
+     * @param executor  the executor.
+     * @return the stage.
+     **/
+    public GetFuture<T> exceptionallyAsync(Function<Throwable, ? extends T> fn, Executor executor) {
+        return next(super.handleAsync(withGetBiFn((T result, Throwable problem) -> recover(result, problem, fn)),
+                executor));
+    }
+    
+    /**
+     * Returns a stage that recovers from the problem of this future with the stage of the function run with the Get.
+     * 
+     * @param fn  the function.
+     * @return the stage.
+     **/
+    public GetFuture<T> exceptionallyCompose(Function<Throwable, ? extends CompletionStage<T>> fn) {
+        return next(super.handle(withGetBiFn((T result, Throwable problem) -> recoverWith(result, problem, fn)))
+                .thenCompose(Function.identity()));
+    }
+    
+    /**
+     * Returns a stage that recovers from the problem of this future with the stage of the function run with the Get on
+     *   the default async executor.
+     * 
+     * @param fn  the function.
+     * @return the stage.
+     **/
+    public GetFuture<T> exceptionallyComposeAsync(Function<Throwable, ? extends CompletionStage<T>> fn) {
+        return next(super.handleAsync(withGetBiFn((T result, Throwable problem) -> recoverWith(result, problem, fn)))
+                .thenCompose(Function.identity()));
+    }
+    
+    /**
+     * Returns a stage that recovers from the problem of this future with the stage of the function run with the Get on
+     *   the given executor.
+     * 
+     * @param fn        the function.
+     * @param executor  the executor.
+     * @return the stage.
+     **/
+    public GetFuture<T> exceptionallyComposeAsync(Function<Throwable, ? extends CompletionStage<T>> fn,
+            Executor executor) {
+        return next(super.handleAsync(withGetBiFn((T result, Throwable problem) -> recoverWith(result, problem, fn)),
+                executor).thenCompose(Function.identity()));
+    }
+    
+    private static <T> T recover(T result, Throwable problem, Function<Throwable, ? extends T> fn) {
+        return (problem == null) ? result : fn.apply(problem);
+    }
+    
+    private static <T> CompletionStage<T> recoverWith(T result, Throwable problem,
+            Function<Throwable, ? extends CompletionStage<T>> fn) {
+        return (problem == null) ? CompletableFuture.completedFuture(result) : fn.apply(problem);
+    }
+    
+}
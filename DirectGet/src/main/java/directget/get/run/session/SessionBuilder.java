@@ -29,6 +29,7 @@ import directget.get.run.HandledFailable;
 import directget.get.run.Wrapper;
 import directget.get.run.exceptions.ProblemHandledException;
 import directget.get.supportive.Provider;
+import directget.get.supportive.SubstitutionSet;
 import dssb.failable.Failable;
 import dssb.failable.FailableException;
 import lombok.val;
@@ -82,25 +83,46 @@ public abstract class SessionBuilder<SB extends SessionBuilder<SB>> {
         return (SB) this;
     }
     
-    /** Add the wrapper */
+    /**
+     * Add the wrapper.
+     * 
+     * The providers are collected into one substitution set here so running the built session many times does not
+     *   need to collect them again.
+     **/
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public SB with(Stream<Wrapper> wrappers) {
         val providers = new ArrayList<Provider>();
         wrappers.forEach(wrapper->{
             if (wrapper instanceof Provider) {
                 providers.add((Provider)wrapper);
+            } else if (wrapper instanceof SubstitutionSet) {
+                addSubstitution((SubstitutionSet)wrapper);
             } else {
                 this.wrappers.add(wrapper);
             }
         });
         if (!providers.isEmpty()) {
-            this.wrappers.add(runnable->()->{
-                scope.get().substitute(providers.stream(), runnable);
-            });
+            addSubstitution(new SubstitutionSet(providers));
         }
         return (SB) this;
     }
     
+    /** Add the substitution */
+    @SuppressWarnings({ "unchecked" })
+    public SB with(SubstitutionSet substitution) {
+        addSubstitution(substitution);
+        return (SB) this;
+    }
+    
+    private void addSubstitution(SubstitutionSet substitution) {
+        if (substitution.isEmpty()) {
+            return;
+        }
+        this.wrappers.add(runnable->()->{
+            scope.get().substitute(substitution, runnable);
+        });
+    }
+    
     private SyncNoCheckExceptionSessionBuilder toSynchronouslyNoCheckExceptionSessionBuilder() {
         val builder = new SyncNoCheckExceptionSessionBuilder();
         builder.failHandler = this.failHandler;
@@ -0,0 +1,48 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import directget.get.run.Named;
+
+/**
+ * Provider of a constant value.
+ * 
+ * The value is held in a final field so getting it does not go through the supplier. Use
+ *   {@link Provider#normalized()} to get one.
+ * 
+ * @author NawaMan
+ * @param <T> the data type.
+ */
+public final class ConstantProvider<T> extends Provider<T> {
+    
+    private final T value;
+    
+    ConstantProvider(Provider<T> original, Named.ValueSupplier<T> supplier) {
+        super(original, supplier);
+        this.value = supplier.getValue();
+    }
+    
+    /** @return the value. */
+    public T getValue() {
+        return value;
+    }
+    
+    @Override
+    public T get() {
+        return value;
+    }
+    
+}
@@ -18,11 +18,14 @@ package directget.get.supportive;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import directget.get.GetThread;
 import lombok.val;
 
 /**
  * This ThreadFactory create thread with unique name with id.
  * 
+ * The threads are {@link GetThread} so the Gets on them are looked up without ThreadLocal.
+ * 
  * @author NawaMan
  */
 public class CounterThreadFactory implements ThreadFactory {
@@ -34,8 +37,7 @@ public class CounterThreadFactory implements ThreadFactory {
     
     @Override
     public Thread newThread(Runnable runnable) {
-        val thread = new Thread(runnable);
-        thread.setName("Thread#" + threadCount.getAndIncrement());
+        val thread = new GetThread(runnable, "Thread#" + threadCount.getAndIncrement());
         return thread;
     }
     
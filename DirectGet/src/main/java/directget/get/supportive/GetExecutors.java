@@ -0,0 +1,298 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import directget.get.App;
+import directget.get.CapturedGet;
+import directget.get.Ref;
+import lombok.val;
+
+/**
+ * This class decorates the executors owned by others (like the pools of an HTTP client) so their tasks run with the
+ *   Get of the thread that submits them.
+ * 
+ * The Get is captured at the time of submission (see {@link directget.get.GetInstance#capture(Predicate)}), put in
+ *   place on the worker thread for the duration of the task and the previous Get of the worker is restored
+ *   afterward. The tasks of a single {@code invokeAll}/{@code invokeAny} share one capture and a periodic task
+ *   uses its capture for every run.
+ * 
+ * Only the Get of the App scope is propagated -- the Gets of the sub scopes on the worker thread are those of the
+ *   worker (a thread does not know which sub scopes are in use). Decorating an executor that is already propagating
+ *   decorates its underlying executor with the given filter instead -- so the tasks are captured once.
+ * 
+ * @author NawaMan
+ */
+@SuppressWarnings("rawtypes")
+public final class GetExecutors {
+    
+    private GetExecutors() {
+        
+    }
+    
+    /**
+     * Returns the executor that runs the tasks with all the substitution of the submitting thread.
+     * 
+     * @param executor  the executor.
+     * @return the decorated executor.
+     */
+    public static Executor propagating(Executor executor) {
+        return propagating(executor, RefFilter.ALL);
+    }
+    
+    /**
+     * Returns the executor that runs the tasks with the substitution of the submitting thread.
+     * 
+     * @param executor  the executor.
+     * @param inherit   the refs to be inherited -- inheriting all of them makes the capture take constant time.
+     * @return the decorated executor.
+     */
+    public static Executor propagating(Executor executor, Predicate<Ref> inherit) {
+        if (executor instanceof ScheduledExecutorService) {
+            return propagating((ScheduledExecutorService)executor, inherit);
+        }
+        if (executor instanceof ExecutorService) {
+            return propagating((ExecutorService)executor, inherit);
+        }
+        return runnable -> executor.execute(withGet(capture(inherit), runnable));
+    }
+    
+    /**
+     * Returns the executor service that runs the tasks with all the substitution of the submitting thread.
+     * 
+     * @param executor  the executor service.
+     * @return the decorated executor service.
+     */
+    public static ExecutorService propagating(ExecutorService executor) {
+        return propagating(executor, RefFilter.ALL);
+    }
+    
+    /**
+     * Returns the executor service that runs the tasks with the substitution of the submitting thread.
+     * 
+     * @param executor  the executor service.
+     * @param inherit   the refs to be inherited -- inheriting all of them makes the capture take constant time.
+     * @return the decorated executor service.
+     */
+    public static ExecutorService propagating(ExecutorService executor, Predicate<Ref> inherit) {
+        if (executor instanceof ScheduledExecutorService) {
+            return propagating((ScheduledExecutorService)executor, inherit);
+        }
+        if (executor instanceof PropagatingExecutorService) {
+            val propagating = (PropagatingExecutorService)executor;
+            if (propagating.inherit == inherit) {
+                return executor;
+            }
+            return new PropagatingExecutorService(propagating.executor, inherit);
+        }
+        return new PropagatingExecutorService(executor, inherit);
+    }
+    
+    /**
+     * Returns the scheduled executor service that runs the tasks with all the substitution of the submitting thread.
+     * 
+     * @param executor  the scheduled executor service.
+     * @return the decorated scheduled executor service.
+     */
+    public static ScheduledExecutorService propagating(ScheduledExecutorService executor) {
+        return propagating(executor, RefFilter.ALL);
+    }
+    
+    /**
+     * Returns the scheduled executor service that runs the tasks with the substitution of the submitting thread.
+     * 
+     * @param executor  the scheduled executor service.
+     * @param inherit   the refs to be inherited -- inheriting all of them makes the capture take constant time.
+     * @return the decorated scheduled executor service.
+     */
+    public static ScheduledExecutorService propagating(ScheduledExecutorService executor, Predicate<Ref> inherit) {
+        if (executor instanceof PropagatingScheduledExecutorService) {
+            val propagating = (PropagatingScheduledExecutorService)executor;
+            if (propagating.inherit == inherit) {
+                return executor;
+            }
+            return new PropagatingScheduledExecutorService(propagating.executor, inherit);
+        }
+        return new PropagatingScheduledExecutorService(executor, inherit);
+    }
+    
+    // Only the App scope -- see the class document.
+    private static CapturedGet capture(Predicate<Ref> inherit) {
+        return App.Get().capture(inherit);
+    }
+    
+    private static Runnable withGet(CapturedGet captured, Runnable runnable) {
+        return () -> captured.run(runnable);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <V> Callable<V> withGet(CapturedGet captured, Callable<V> callable) {
+        return () -> {
+            val result  = new Object[1];
+            val problem = new Exception[1];
+            captured.run(() -> {
+                try {
+                    result[0] = callable.call();
+                } catch (Exception e) {
+                    problem[0] = e;
+                }
+            });
+            if (problem[0] != null) {
+                throw problem[0];
+            }
+            return (V)result[0];
+        };
+    }
+    
+    private static <V> List<Callable<V>> withGet(CapturedGet captured, Collection<? extends Callable<V>> tasks) {
+        val list = new ArrayList<Callable<V>>(tasks.size());
+        for (Callable<V> task : tasks) {
+            list.add(withGet(captured, task));
+        }
+        return list;
+    }
+    
+    /** Executor service that runs the tasks with the Get of the submitting thread. */
+    static class PropagatingExecutorService implements ExecutorService {
+        
+        private final ExecutorService executor;
+        
+        final Predicate<Ref> inherit;
+        
+        PropagatingExecutorService(ExecutorService executor, Predicate<Ref> inherit) {
+            this.executor = executor;
+            this.inherit  = inherit;
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(withGet(capture(inherit), command));
+        }
+        
+        @Override
+        public Future<?> submit(Runnable task) {
+            return executor.submit(withGet(capture(inherit), task));
+        }
+        
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return executor.submit(withGet(capture(inherit), task), result);
+        }
+        
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return executor.submit(withGet(capture(inherit), task));
+        }
+        
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return executor.invokeAll(withGet(capture(inherit), tasks));
+        }
+        
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return executor.invokeAll(withGet(capture(inherit), tasks), timeout, unit);
+        }
+        
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+                throws InterruptedException, ExecutionException {
+            return executor.invokeAny(withGet(capture(inherit), tasks));
+        }
+        
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return executor.invokeAny(withGet(capture(inherit), tasks), timeout, unit);
+        }
+        
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+        
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executor.shutdownNow();
+        }
+        
+        @Override
+        public boolean isShutdown() {
+            return executor.isShutdown();
+        }
+        
+        @Override
+        public boolean isTerminated() {
+            return executor.isTerminated();
+        }
+        
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executor.awaitTermination(timeout, unit);
+        }
+        
+    }
+    
+    /** Scheduled executor service that runs the tasks with the Get of the submitting thread. */
+    static class PropagatingScheduledExecutorService extends PropagatingExecutorService
+            implements ScheduledExecutorService {
+        
+        private final ScheduledExecutorService executor;
+        
+        PropagatingScheduledExecutorService(ScheduledExecutorService executor, Predicate<Ref> inherit) {
+            super(executor, inherit);
+            this.executor = executor;
+        }
+        
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return executor.schedule(withGet(capture(inherit), command), delay, unit);
+        }
+        
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            return executor.schedule(withGet(capture(inherit), callable), delay, unit);
+        }
+        
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                TimeUnit unit) {
+            return executor.scheduleAtFixedRate(withGet(capture(inherit), command), initialDelay, period, unit);
+        }
+        
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                TimeUnit unit) {
+            return executor.scheduleWithFixedDelay(withGet(capture(inherit), command), initialDelay, delay, unit);
+        }
+        
+    }
+    
+}
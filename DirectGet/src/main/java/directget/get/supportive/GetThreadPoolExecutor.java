@@ -0,0 +1,145 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static directget.get.Get.DefaultThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import directget.get.App;
+import directget.get.Ref;
+import directget.get.Scope;
+
+/**
+ * This executor runs the tasks on a bounded pool of reused threads.
+ * 
+ * The Gets of a worker thread are cleared after each task so the substitution of one task is never seen by the
+ *   next task on the same thread.
+ * 
+ * The default instance is created when first used, with the sizes from the refs in this class and the thread
+ *   factory from {@link directget.get.Get#DefaultThreadFactory} -- all as configured in the App scope (the
+ *   substitutions of the thread that happens to use it first do not apply). When the default instance is saturated,
+ *   the task is rejected -- running it on the submitting thread would run a forked context there.
+ * 
+ * @author NawaMan
+ */
+public class GetThreadPoolExecutor extends ThreadPoolExecutor {
+    
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    
+    /** The number of threads kept in the pool of the default instance. */
+    public static final RefToInt corePoolSize = Ref.toInt("GetThreadPoolExecutor.corePoolSize", Math.max(8, 2*PROCESSORS));
+    
+    /** The maximum number of threads in the pool of the default instance. */
+    public static final RefToInt maxPoolSize = Ref.toInt("GetThreadPoolExecutor.maxPoolSize", Math.max(8, 2*PROCESSORS));
+    
+    /** The number of tasks that can wait in the queue of the default instance. */
+    public static final RefToInt queueCapacity = Ref.toInt("GetThreadPoolExecutor.queueCapacity", 1024);
+    
+    /**
+     * The time in milliseconds an idle thread of the default instance is kept.
+     * 
+     * This is kept short as the idle threads would hold up the JVM from exiting.
+     */
+    public static final RefToLong keepAliveMillis = Ref.toLong("GetThreadPoolExecutor.keepAliveMillis", 1000L);
+    
+    private static class DefaultHolder {
+        static final GetThreadPoolExecutor instance = new GetThreadPoolExecutor(
+                App.scope.getConfiguredValue(corePoolSize),
+                App.scope.getConfiguredValue(maxPoolSize),
+                App.scope.getConfiguredValue(keepAliveMillis),
+                App.scope.getConfiguredValue(queueCapacity),
+                App.scope.getConfiguredValue(DefaultThreadFactory),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    private final AtomicInteger activeWorkers = new AtomicInteger(0);
+    
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    /**
+     * Returns the default instance -- created when first called.
+     * 
+     * @return the default instance.
+     */
+    public static GetThreadPoolExecutor getDefault() {
+        return DefaultHolder.instance;
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param corePoolSize     the number of threads kept in the pool.
+     * @param maxPoolSize      the maximum number of threads in the pool.
+     * @param keepAliveMillis  the time in milliseconds an idle thread is kept.
+     * @param queueCapacity    the number of tasks that can wait in the queue.
+     * @param threadFactory    the thread factory.
+     * @param rejectionHandler the handler of the task that cannot be accepted.
+     */
+    public GetThreadPoolExecutor(
+            int                      corePoolSize,
+            int                      maxPoolSize,
+            long                     keepAliveMillis,
+            int                      queueCapacity,
+            ThreadFactory            threadFactory,
+            RejectedExecutionHandler rejectionHandler) {
+        super(corePoolSize, maxPoolSize, keepAliveMillis, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        setRejectedExecutionHandler((runnable, executor) -> {
+            rejectedCount.increment();
+            rejectionHandler.rejectedExecution(runnable, executor);
+        });
+        allowCoreThreadTimeOut(true);
+    }
+    
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        activeWorkers.incrementAndGet();
+        super.beforeExecute(thread, runnable);
+    }
+    
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+        try {
+            super.afterExecute(runnable, throwable);
+        } finally {
+            Scope.resetAllGets();
+            activeWorkers.decrementAndGet();
+        }
+    }
+    
+    /** @return the number of tasks waiting in the queue. */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+    
+    /** @return the number of threads running a task. */
+    public int getActiveWorkers() {
+        return activeWorkers.get();
+    }
+    
+    /** @return the number of tasks rejected. */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+    
+}
@@ -0,0 +1,66 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import directget.get.App;
+import directget.get.Get;
+import directget.get.Ref;
+import directget.get.ScopedContext;
+import directget.get.run.Named;
+import lombok.val;
+
+/**
+ * Provider of the value of another ref that is linked directly to the provider of that ref.
+ * 
+ * When the App scope is frozen and there is no substitution (neither in the Get of the thread nor bound by
+ *   {@link ScopedContext}), the provider of the other ref is known so its value is taken from it directly instead of
+ *   resolving the ref again. Use {@link Provider#linkedTo(Provider)} to get one.
+ * 
+ * @author NawaMan
+ * @param <T> the data type.
+ */
+public final class LinkedProvider<T> extends Provider<T> {
+    
+    private final Ref<T> linkedRef;
+    
+    private final Provider<? extends T> target;
+    
+    LinkedProvider(Provider<T> original, Named.RefSupplier<T> supplier, Provider<? extends T> target) {
+        super(original, supplier);
+        this.linkedRef = supplier.getRef();
+        this.target    = target;
+    }
+    
+    /** @return the provider this provider is linked to. */
+    public Provider<? extends T> getTarget() {
+        return target;
+    }
+    
+    @Override
+    public T get() {
+        if (!App.scope.isFrozen()) {
+            return Get.the(linkedRef);
+        }
+        
+        // The substitution may be in the Get of the thread or bound to the running code.
+        val get = App.Get();
+        if (get.isSubstituted() || ScopedContext.isBound(App.scope)) {
+            return get.the(linkedRef);
+        }
+        return target.get();
+    }
+    
+}
@@ -0,0 +1,175 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static directget.get.Get.DefaultThreadFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import directget.get.App;
+import directget.get.Ref;
+import lombok.val;
+
+/**
+ * The registry of the named executors -- one per kind of workload so a kind of workload (like blocking IO) cannot
+ *   starve the others.
+ * 
+ * Each named executor is a ref so it can be configured or substituted like any other ref. The built-in ones
+ *   ({@link #CPU}, {@link #IO} and {@link #BLOCKING}) are pools created when first used with the sizes from their own
+ *   refs -- so each pool can be tuned independently. The pools are shared so those refs (and the thread factory) are
+ *   read as configured for the App scope -- the substitutions of the thread that first uses the pool do not apply.
+ *   A saturated pool rejects the task (like the default pool of {@link GetThreadPoolExecutor}).
+ * 
+ * @author NawaMan
+ */
+public final class NamedExecutors {
+    
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    
+    private static final ConcurrentHashMap<String, RefTo<Executor>> executors = new ConcurrentHashMap<>();
+    
+    /** The pool for the CPU-bound work -- as many threads as the processors. */
+    public static final Pool CPU = new Pool("cpu", PROCESSORS, PROCESSORS, 1024);
+    
+    /** The pool for the IO work that mostly waits -- more threads than the processors. */
+    public static final Pool IO = new Pool("io", Math.max(64, 8*PROCESSORS), Math.max(64, 8*PROCESSORS), 1024);
+    
+    /** The pool for the work that blocks for long -- many threads and a short queue. */
+    public static final Pool BLOCKING = new Pool("blocking", 256, 256, 64);
+    
+    private NamedExecutors() {
+        
+    }
+    
+    /**
+     * Returns the ref of the executor with the given name.
+     * 
+     * @param name  the name.
+     * @return the ref of the executor.
+     * @throws IllegalArgumentException  if there is no executor with the name.
+     */
+    public static RefTo<Executor> get(String name) {
+        val ref = executors.get(name);
+        if (ref == null) {
+            throw new IllegalArgumentException("Unknown executor: " + name + " -- known: " + getNames());
+        }
+        return ref;
+    }
+    
+    /**
+     * Register the ref of the executor with the given name.
+     * 
+     * @param name         the name.
+     * @param executorRef  the ref of the executor.
+     * @return the ref of the executor.
+     * @throws IllegalArgumentException  if there is already an executor with the name.
+     */
+    public static RefTo<Executor> register(String name, RefTo<Executor> executorRef) {
+        val existing = executors.putIfAbsent(name, executorRef);
+        if ((existing != null) && (existing != executorRef)) {
+            throw new IllegalArgumentException("Executor already registered: " + name);
+        }
+        return executorRef;
+    }
+    
+    /** @return the names of the registered executors. */
+    public static Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(executors.keySet()));
+    }
+    
+    /**
+     * A named pool -- created when first used with the sizes from its refs as configured for the App scope.
+     */
+    public static final class Pool {
+        
+        /** The name of the pool. */
+        public final String name;
+        
+        /** The number of threads kept in the pool. */
+        public final RefToInt corePoolSize;
+        
+        /** The maximum number of threads in the pool. */
+        public final RefToInt maxPoolSize;
+        
+        /** The number of tasks that can wait in the queue. */
+        public final RefToInt queueCapacity;
+        
+        /** The time in milliseconds an idle thread is kept. */
+        public final RefToLong keepAliveMillis;
+        
+        /** The ref of the executor -- defaulted to the pool. */
+        public final RefTo<Executor> executor;
+        
+        private volatile GetThreadPoolExecutor instance = null;
+        
+        /**
+         * Constructs and registers a named pool.
+         * 
+         * @param name           the name.
+         * @param corePoolSize   the default number of threads kept in the pool.
+         * @param maxPoolSize    the default maximum number of threads in the pool.
+         * @param queueCapacity  the default number of tasks that can wait in the queue.
+         */
+        public Pool(String name, int corePoolSize, int maxPoolSize, int queueCapacity) {
+            val prefix = "NamedExecutors." + name + ".";
+            this.name            = name;
+            this.corePoolSize    = Ref.toInt(prefix + "corePoolSize", corePoolSize);
+            this.maxPoolSize     = Ref.toInt(prefix + "maxPoolSize", maxPoolSize);
+            this.queueCapacity   = Ref.toInt(prefix + "queueCapacity", queueCapacity);
+            this.keepAliveMillis = Ref.toLong(prefix + "keepAliveMillis", 1000L);
+            this.executor        = Ref.to(prefix + "executor", Executor.class).defaultedToBy(this::getPool);
+            register(name, this.executor);
+        }
+        
+        /**
+         * Returns the pool -- created when first called.
+         * 
+         * @return the pool.
+         */
+        public GetThreadPoolExecutor getPool() {
+            GetThreadPoolExecutor pool = instance;
+            if (pool == null) {
+                synchronized (this) {
+                    pool = instance;
+                    if (pool == null) {
+                        pool = new GetThreadPoolExecutor(
+                                App.scope.getConfiguredValue(corePoolSize),
+                                App.scope.getConfiguredValue(maxPoolSize),
+                                App.scope.getConfiguredValue(keepAliveMillis),
+                                App.scope.getConfiguredValue(queueCapacity),
+                                App.scope.getConfiguredValue(DefaultThreadFactory),
+                                new ThreadPoolExecutor.AbortPolicy());
+                        instance = pool;
+                    }
+                }
+            }
+            return pool;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return "Pool(" + name + ")";
+        }
+        
+    }
+    
+}
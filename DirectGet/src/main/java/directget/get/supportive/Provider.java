@@ -21,7 +21,6 @@ import static java.lang.String.format;
 
 import java.util.Objects;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
 import directget.get.App;
 import directget.get.Preferability;
@@ -47,6 +46,12 @@ public class Provider<T> implements HasProvider<T>, Supplier<T>, Wrapper {
     
     private final String caller;
     
+    /** The provider this provider is derived from (by normalizing or linking) -- itself if it is not derived. */
+    private final Provider<T> original;
+    
+    // Created lazily -- racing threads would just create equivalent sets.
+    private SubstitutionSet substitution;
+    
     /**
      * Constructor.
      * 
@@ -59,10 +64,34 @@ public class Provider<T> implements HasProvider<T>, Supplier<T>, Wrapper {
      */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public Provider(Ref<T> ref, Preferability preferability, Supplier<? extends T> supplier) {
-        this.caller        = CallerId.instance.caller().toString();
+        this.caller        = isAppFrozen() ? null : CallerId.instance.caller().toString();
         this.ref           = Objects.requireNonNull(ref);
         this.preferability = preferability != null ? preferability      : Default;
         this.supplier      = supplier      != null ? (Supplier)supplier : (Supplier)()->null;
+        this.original      = this;
+    }
+    
+    /**
+     * Constructor for a provider that is equivalent to the given provider but with a different supplier.
+     * 
+     * @param original
+     *            the original provider -- its ref, preferability and caller are kept.
+     * @param supplier
+     *            the supplier to get the value.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected Provider(Provider<T> original, Supplier<? extends T> supplier) {
+        this.caller        = original.caller;
+        this.ref           = original.ref;
+        this.preferability = original.preferability;
+        this.supplier      = (Supplier)Objects.requireNonNull(supplier);
+        this.original      = original.original;
+    }
+    
+    // The App scope can be null while the App class is being initialized.
+    private static boolean isAppFrozen() {
+        val appScope = App.scope;
+        return (appScope != null) && appScope.isFrozen();
     }
     
     @Override
@@ -94,6 +123,16 @@ public class Provider<T> implements HasProvider<T>, Supplier<T>, Wrapper {
         return preferability;
     }
     
+    /**
+     * Returns the provider this provider is derived from -- the normalized or linked provider gives the same value as
+     *   the provider it is derived from. This provider is returned if it is not derived.
+     * 
+     * @return the original provider.
+     */
+    public final Provider<T> getOriginal() {
+        return original;
+    }
+    
     /**
      * Returns the caller that create this provider.
      * 
@@ -118,11 +157,43 @@ public class Provider<T> implements HasProvider<T>, Supplier<T>, Wrapper {
 
     @Override
     public Runnable apply(Runnable runnable) {
-        return ()->{
-            @SuppressWarnings("rawtypes")
-            Stream<Provider> stream = Stream.of(this);
-            App.Get().substitute(stream, runnable);
-        };
+        if (substitution == null) {
+            substitution = new SubstitutionSet(this);
+        }
+        return substitution.apply(runnable);
+    }
+    
+    /**
+     * Returns the normalized version of this provider -- a provider of a value becomes a {@link ConstantProvider}.
+     * 
+     * The normalized provider gives the same value but its value can be read directly (no supplier call) which is
+     *   easier for the JIT to inline.
+     * 
+     * @return the normalized provider.
+     */
+    public Provider<T> normalized() {
+        if ((this instanceof ConstantProvider) || !(supplier instanceof Named.ValueSupplier)) {
+            return this;
+        }
+        return new ConstantProvider<>(this, (Named.ValueSupplier<T>)supplier);
+    }
+    
+    /**
+     * Returns the provider equivalent to this provider but linked directly to the given provider -- the provider of
+     *   the ref this provider gets its value from.
+     * 
+     * The link is only followed while the App scope is frozen and there is no substitution -- that is when the
+     *   linked ref is known to be provided by the given provider. Otherwise, the ref is resolved as usual.
+     * 
+     * @param target
+     *            the provider of the ref this provider gets its value from.
+     * @return the linked provider or this provider if this provider does not get its value from another ref.
+     */
+    public Provider<T> linkedTo(Provider<? extends T> target) {
+        if (!(supplier instanceof Named.RefSupplier)) {
+            return this;
+        }
+        return new LinkedProvider<>(this, (Named.RefSupplier<T>)supplier, target);
     }
     
     //== Wither =======================================================================================================
@@ -15,11 +15,14 @@
 //  ========================================================================
 package directget.get.supportive;
 
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.TreeMap;
-import java.util.function.Supplier;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-import dssb.utils.common.Nulls;
 import directget.get.Ref;
 import lombok.val;
 import lombok.experimental.ExtensionMethod;
@@ -27,25 +30,235 @@ import lombok.experimental.ExtensionMethod;
 /**
  * StackMap for Provider.
  * 
+ * The providers are kept in a persistent (immutable and structurally shared) trie indexed by the ref id. Pushing
+ *   only copies the path to the ref and popping simply goes back to an earlier state, so a state can be kept as a
+ *   mark or shared with another thread without copying. A fork that inherits all the refs starts from the state of
+ *   its parent as is so it takes constant time. A fork with any other filter copies only the trie nodes that lead to
+ *   the accepted refs -- proportional to the number of the substituted refs. Either way, the fork has its own trie so
+ *   looking up a provider does not depend on how many times it was forked.
+ * 
+ * This class is NOT thread-safe -- each instance is meant to be confined to one thread (as GetInstance is).
+ * 
  * @author NawaMan
  */
 @SuppressWarnings({ "rawtypes", "unchecked" })
-@ExtensionMethod({ utilities.class, Nulls.class })
-public class ProviderStackMap extends TreeMap<Ref, Stack<Provider>> {
+@ExtensionMethod({ utilities.class })
+public class ProviderStackMap {
+    
+    private static final int BITS  = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK  = WIDTH - 1;
+    
+    /**
+     * Immutable state of the stacks -- used as a mark to pop back to.
+     */
+    public static final class State {
+        
+        static final State EMPTY = new State(new Object[WIDTH], 0, 0);
+        
+        private final Object[] root;
+        
+        private final int shift;
+        
+        private final int count;
+        
+        private State(Object[] root, int shift, int count) {
+            this.root  = root;
+            this.shift = shift;
+            this.count = count;
+        }
+        
+        Frame peek(int id) {
+            if ((id >>> shift) >= WIDTH) {
+                return null;
+            }
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                node = (Object[])node[(id >>> level) & MASK];
+                if (node == null) {
+                    return null;
+                }
+            }
+            return (Frame)node[id & MASK];
+        }
+        
+        State push(Provider provider) {
+            val id    = provider.getRef().getId();
+            val frame = new Frame(provider, peek(id));
+            
+            Object[] newRoot  = root;
+            int      newShift = shift;
+            while ((id >>> newShift) >= WIDTH) {
+                val node = new Object[WIDTH];
+                node[0]   = newRoot;
+                newRoot   = node;
+                newShift += BITS;
+            }
+            return new State(assoc(newRoot, newShift, id, frame), newShift, count + 1);
+        }
+        
+        private static Object[] assoc(Object[] node, int level, int id, Frame frame) {
+            val copy  = (node != null) ? node.clone() : new Object[WIDTH];
+            val index = (id >>> level) & MASK;
+            copy[index] = (level == 0) ? frame : assoc((Object[])copy[index], level - BITS, id, frame);
+            return copy;
+        }
+        
+        State filter(RefFilter filter) {
+            val counter = new int[1];
+            val newRoot = filter(root, shift, 0, filter, counter);
+            return (newRoot != null) ? new State(newRoot, shift, counter[0]) : EMPTY;
+        }
+        
+        private static Object[] filter(Object[] node, int level, int prefix, RefFilter filter, int[] counter) {
+            Object[] copy = null;
+            for (int index = 0; index < WIDTH; index++) {
+                val each = node[index];
+                if (each == null) {
+                    continue;
+                }
+                
+                val    id = prefix | (index << level);
+                Object kept;
+                if (level == 0) {
+                    kept = filter.test(id) ? each : null;
+                    for (Frame frame = (Frame)kept; frame != null; frame = frame.next) {
+                        counter[0]++;
+                    }
+                } else {
+                    kept = filter((Object[])each, level - BITS, id, filter, counter);
+                }
+                if (kept != null) {
+                    if (copy == null) {
+                        copy = new Object[WIDTH];
+                    }
+                    copy[index] = kept;
+                }
+            }
+            return copy;
+        }
+        
+        void collectFrames(List<Frame> frames) {
+            collectFrames(root, shift, frames);
+        }
+        
+        private static void collectFrames(Object[] node, int level, List<Frame> frames) {
+            for (Object each : node) {
+                if (each == null) {
+                    continue;
+                }
+                if (level == 0) {
+                    frames.add((Frame)each);
+                } else {
+                    collectFrames((Object[])each, level - BITS, frames);
+                }
+            }
+        }
+        
+    }
     
-    private static final long serialVersionUID = -8113998773064688984L;
+    /** Immutable stack of the providers of one ref. */
+    static final class Frame {
+        
+        final Provider provider;
+        
+        final Frame next;
+        
+        Frame(Provider provider, Frame next) {
+            this.provider = provider;
+            this.next     = next;
+        }
+        
+    }
     
-    private Supplier<Stack<Provider>> ensureValue(Ref ref) {
-        return (Supplier<Stack<Provider>>) () -> {
-            this.put((Ref) ref, new Stack<Provider>());
-            return super.get(ref);
-        };
+    private State state;
+    
+    /** Constructs an empty stack map. */
+    public ProviderStackMap() {
+        this(State.EMPTY);
     }
     
-    @Override
-    public Stack<Provider> get(Object ref) {
-        Stack<Provider> stack = super.get(ref).orGet(ensureValue((Ref) ref));
-        return stack;
+    private ProviderStackMap(State state) {
+        this.state = state;
+    }
+    
+    /**
+     * Create a new stack map that starts with the current providers of this stack map that pass the filter.
+     * 
+     * The new stack map shares the current state of this one when all the refs are inherited so this takes constant
+     *   time. Otherwise, only the trie nodes leading to the inherited refs are copied. Later changes of either stack
+     *   maps are not seen by the other.
+     * 
+     * @param filter
+     *          the filter of the refs to be inherited.
+     * @return the new stack map.
+     */
+    public ProviderStackMap fork(RefFilter filter) {
+        if ((filter == null) || filter.isNone() || isEmpty()) {
+            return new ProviderStackMap();
+        }
+        if (filter.isAll()) {
+            return new ProviderStackMap(state);
+        }
+        return new ProviderStackMap(state.filter(filter));
+    }
+    
+    /**
+     * Push the provider on the stack of its ref.
+     * 
+     * @param provider
+     *          the provider -- {@code null} is ignored.
+     */
+    public void push(Provider provider) {
+        if (provider == null) {
+            return;
+        }
+        
+        state = state.push(provider);
+    }
+    
+    /**
+     * Push all the providers of the substitution set on the stacks of their refs.
+     * 
+     * @param substitution
+     *          the substitution set.
+     */
+    public void pushAll(SubstitutionSet substitution) {
+        State newState = state;
+        for (Provider provider : substitution.providers) {
+            newState = newState.push(provider);
+        }
+        state = newState;
+    }
+    
+    /**
+     * Returns the mark of the current state of this stack map -- to be used with {@link #popTo(State)}.
+     * 
+     * @return the mark.
+     */
+    public State mark() {
+        return state;
+    }
+    
+    /**
+     * Pop all the providers pushed after the given mark was taken.
+     * 
+     * @param mark
+     *          the mark.
+     * @return {@code true} if any provider was popped.
+     */
+    public boolean popTo(State mark) {
+        if (state == mark) {
+            return false;
+        }
+        
+        state = mark;
+        return true;
+    }
+    
+    /** @return {@code true} if there is no provider on the stacks. */
+    public boolean isEmpty() {
+        return state.count == 0;
     }
     
     /**
@@ -56,14 +269,29 @@ public class ProviderStackMap extends TreeMap<Ref, Stack<Provider>> {
      * @return the provider.
      */
     public <T> Provider<T> peek(Ref<T> ref) {
-        if (!containsKey(ref)) {
-            return null;
-        }
-        Stack<Provider> stack = get(ref);
-        if (stack.isEmpty()) {
-            return null;
+        val frame = state.peek(ref.getId());
+        return (frame != null) ? frame.provider : null;
+    }
+    
+    /** @return the refs that currently have providers on their stacks. */
+    public Stream<Ref> getRefs() {
+        return getStacks().keySet().stream();
+    }
+    
+    // The stacks (bottom first) of all the refs.
+    private TreeMap<Ref, List<Provider>> getStacks() {
+        val stacks = new TreeMap<Ref, List<Provider>>();
+        val frames = new ArrayList<Frame>();
+        state.collectFrames(frames);
+        for (Frame frame : frames) {
+            val stack = new ArrayList<Provider>();
+            for (Frame each = frame; each != null; each = each.next) {
+                stack.add(each.provider);
+            }
+            Collections.reverse(stack);
+            stacks.put(frame.provider.getRef(), stack);
         }
-        return stack.peek();
+        return stacks;
     }
     
     // TODO - Make this stacktrace friendly.
@@ -74,14 +302,17 @@ public class ProviderStackMap extends TreeMap<Ref, Stack<Provider>> {
      * @return the X-Ray.
      */
     public String toXRayString() {
-        val isEmpty = this.isEmpty();
-        if (isEmpty) {
+        val stacks = getStacks();
+        if (stacks.isEmpty()) {
             return "{\n}";
         }
         
-        String pairs = this._toPairStrings()._toIndentLines();
+        Function<Entry<Ref, List<Provider>>, String> pairToString = entry -> entry.getKey() + "=" + entry.getValue();
+        String pairs = stacks.entrySet().stream()
+                .map(pairToString)
+                ._toIndentLines();
         String xRay = String.format("{\n\t%s\n}", pairs);
         return xRay;
     }
     
-}
\ No newline at end of file
+}
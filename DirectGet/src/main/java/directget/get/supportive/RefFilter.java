@@ -0,0 +1,124 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import directget.get.Ref;
+
+/**
+ * Filter of refs backed by a bit set of the ref ids.
+ * 
+ * The filter is compiled once so testing a ref is a bit check -- no list or set lookup.
+ * 
+ * @author NawaMan
+ */
+@SuppressWarnings("rawtypes")
+public final class RefFilter implements Predicate<Ref> {
+    
+    private static final long[] NO_BITS = new long[0];
+    
+    /** The filter that accepts all refs. */
+    public static final RefFilter ALL = new RefFilter(true, NO_BITS);
+    
+    /** The filter that accepts no ref. */
+    public static final RefFilter NONE = new RefFilter(false, NO_BITS);
+    
+    /** {@code true} if the refs in the bits are the ones to be rejected. */
+    private final boolean isExcluding;
+    
+    private final long[] bits;
+    
+    private RefFilter(boolean isExcluding, long[] bits) {
+        this.isExcluding = isExcluding;
+        this.bits        = bits;
+    }
+    
+    /**
+     * Create a filter that accepts only the given refs.
+     * 
+     * @param refs  the refs.
+     * @return the filter.
+     */
+    public static RefFilter including(Collection<? extends Ref> refs) {
+        return refs.isEmpty() ? NONE : new RefFilter(false, toBits(refs));
+    }
+    
+    /**
+     * Create a filter that accepts all but the given refs.
+     * 
+     * @param refs  the refs.
+     * @return the filter.
+     */
+    public static RefFilter excluding(Collection<? extends Ref> refs) {
+        return refs.isEmpty() ? ALL : new RefFilter(true, toBits(refs));
+    }
+    
+    private static long[] toBits(Collection<? extends Ref> refs) {
+        long[] bits = NO_BITS;
+        for (Ref ref : refs) {
+            int id    = ref.getId();
+            int index = id >>> 6;
+            if (index >= bits.length) {
+                bits = Arrays.copyOf(bits, index + 1);
+            }
+            bits[index] |= (1L << id);
+        }
+        return bits;
+    }
+    
+    /** @return {@code true} if this filter accepts all refs. */
+    public boolean isAll() {
+        return this == ALL;
+    }
+    
+    /** @return {@code true} if this filter accepts no ref. */
+    public boolean isNone() {
+        return this == NONE;
+    }
+    
+    /**
+     * Test the ref with the given id.
+     * 
+     * @param id  the ref id.
+     * @return {@code true} if the ref is accepted.
+     */
+    public boolean test(int id) {
+        int     index = id >>> 6;
+        boolean isIn  = (index < bits.length) && ((bits[index] & (1L << id)) != 0);
+        return isIn != isExcluding;
+    }
+    
+    @Override
+    public boolean test(Ref ref) {
+        return test(ref.getId());
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        if (this == ALL) {
+            return "RefFilter(All)";
+        }
+        if (this == NONE) {
+            return "RefFilter(None)";
+        }
+        return "RefFilter(" + (isExcluding ? "excluding" : "including") + ")";
+    }
+    
+}
@@ -29,6 +29,14 @@ import lombok.val;
  */
 public final class RefOf<T> extends Ref<T> {
     
+    // All RefOf of the same class are equals so they share the same id.
+    private static final ClassValue<Integer> classIds = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> targetClass) {
+            return newId();
+        }
+    };
+    
     private final Provider<T> provider;
     
     /**
@@ -38,7 +46,7 @@ public final class RefOf<T> extends Ref<T> {
      *          the target class.
      */
     public RefOf(Class<T> targetClass) {
-        super(targetClass);
+        super(targetClass, classIds.get(targetClass));
         
         this.provider = CallerId.instance.trace(caller->{
             return new Provider<>(this, Preferability.Default, () -> getDefaultValue());
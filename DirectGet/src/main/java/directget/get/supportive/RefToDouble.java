@@ -0,0 +1,101 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.function.DoubleSupplier;
+
+import directget.get.Get;
+import directget.get.Preferability;
+import directget.get.run.Named;
+import dssb.callerid.impl.CallerId;
+
+/**
+ * Reference to a double value that can be read without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class RefToDouble extends RefToPrimitive<Double, DoubleSupplier> implements DoubleSupplier {
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *          the ref name.
+     * @param preferability
+     *          the preferability.
+     * @param supplier
+     *          the value supplier.
+     */
+    public RefToDouble(String name, Preferability preferability, DoubleSupplier supplier) {
+        super(name, Double.class, preferability, supplier, Named.DoubleSupplier::new);
+    }
+    
+    /** @return the current value for this ref. */
+    @Override
+    public double getAsDouble() {
+        return Get.doubleOf(this);
+    }
+    
+    /**
+     * Create a provider that dictates the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Double> butDictatedTo(double value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Dictate, new Named.DoubleSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider (normal preferability) with the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Double> butProvidedWith(double value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Normal, new Named.DoubleSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider that defaults to the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Double> butDefaultedTo(double value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Default, new Named.DoubleSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider with the given preferability that provides the result of the given supplier.
+     * 
+     * @param preferability  the preferability.
+     * @param supplier       the supplier.
+     * @return the provider.
+     **/
+    public Provider<Double> butProvidedByDouble(Preferability preferability, DoubleSupplier supplier) {
+        return CallerId.instance.trace(caller->{
+            return newSupplierProvider(preferability, supplier);
+        });
+    }
+    
+}
@@ -0,0 +1,101 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.function.IntSupplier;
+
+import directget.get.Get;
+import directget.get.Preferability;
+import directget.get.run.Named;
+import dssb.callerid.impl.CallerId;
+
+/**
+ * Reference to an int value that can be read without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class RefToInt extends RefToPrimitive<Integer, IntSupplier> implements IntSupplier {
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *          the ref name.
+     * @param preferability
+     *          the preferability.
+     * @param supplier
+     *          the value supplier.
+     */
+    public RefToInt(String name, Preferability preferability, IntSupplier supplier) {
+        super(name, Integer.class, preferability, supplier, Named.IntSupplier::new);
+    }
+    
+    /** @return the current value for this ref. */
+    @Override
+    public int getAsInt() {
+        return Get.intOf(this);
+    }
+    
+    /**
+     * Create a provider that dictates the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Integer> butDictatedTo(int value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Dictate, new Named.IntSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider (normal preferability) with the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Integer> butProvidedWith(int value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Normal, new Named.IntSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider that defaults to the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Integer> butDefaultedTo(int value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Default, new Named.IntSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider with the given preferability that provides the result of the given supplier.
+     * 
+     * @param preferability  the preferability.
+     * @param supplier       the supplier.
+     * @return the provider.
+     **/
+    public Provider<Integer> butProvidedByInt(Preferability preferability, IntSupplier supplier) {
+        return CallerId.instance.trace(caller->{
+            return newSupplierProvider(preferability, supplier);
+        });
+    }
+    
+}
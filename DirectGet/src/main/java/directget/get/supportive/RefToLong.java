@@ -0,0 +1,101 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.function.LongSupplier;
+
+import directget.get.Get;
+import directget.get.Preferability;
+import directget.get.run.Named;
+import dssb.callerid.impl.CallerId;
+
+/**
+ * Reference to a long value that can be read without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class RefToLong extends RefToPrimitive<Long, LongSupplier> implements LongSupplier {
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *          the ref name.
+     * @param preferability
+     *          the preferability.
+     * @param supplier
+     *          the value supplier.
+     */
+    public RefToLong(String name, Preferability preferability, LongSupplier supplier) {
+        super(name, Long.class, preferability, supplier, Named.LongSupplier::new);
+    }
+    
+    /** @return the current value for this ref. */
+    @Override
+    public long getAsLong() {
+        return Get.longOf(this);
+    }
+    
+    /**
+     * Create a provider that dictates the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Long> butDictatedTo(long value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Dictate, new Named.LongSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider (normal preferability) with the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Long> butProvidedWith(long value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Normal, new Named.LongSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider that defaults to the given value.
+     * 
+     * @param value  the value.
+     * @return the provider.
+     **/
+    public Provider<Long> butDefaultedTo(long value) {
+        return CallerId.instance.trace(caller->{
+            return newProvider(Preferability.Default, new Named.LongSupplier(value));
+        });
+    }
+    
+    /**
+     * Create a provider with the given preferability that provides the result of the given supplier.
+     * 
+     * @param preferability  the preferability.
+     * @param supplier       the supplier.
+     * @return the provider.
+     **/
+    public Provider<Long> butProvidedByLong(Preferability preferability, LongSupplier supplier) {
+        return CallerId.instance.trace(caller->{
+            return newSupplierProvider(preferability, supplier);
+        });
+    }
+    
+}
@@ -0,0 +1,66 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.function.BiFunction;
+
+import directget.get.Preferability;
+import directget.get.run.Named;
+
+/**
+ * Reference to a primitive value that can be read without boxing -- the part shared by {@link RefToInt},
+ *   {@link RefToLong}, {@link RefToDouble} and {@link RefToBoolean}.
+ * 
+ * The value is always kept by a primitive supplier of {@link Named} so the Get can read it without boxing.
+ * 
+ * @param <T> the boxed type of the value.
+ * @param <S> the type of the primitive supplier.
+ * 
+ * @author NawaMan
+ **/
+public abstract class RefToPrimitive<T, S> extends RefTo<T> {
+    
+    private final BiFunction<String, S, Named.Supplier<T>> namedSupplierFactory;
+    
+    RefToPrimitive(String name, Class<T> targetClass, Preferability preferability, S supplier,
+            BiFunction<String, S, Named.Supplier<T>> namedSupplierFactory) {
+        super(name, targetClass, preferability, namedSupplierFactory.apply(name, supplier));
+        this.namedSupplierFactory = namedSupplierFactory;
+    }
+    
+    /**
+     * Create a provider of this ref.
+     * 
+     * @param preferability  the preferability.
+     * @param supplier       the primitive supplier of {@link Named}.
+     * @return the provider.
+     */
+    final Provider<T> newProvider(Preferability preferability, Named.Supplier<T> supplier) {
+        return new Provider<>(this, preferability, supplier);
+    }
+    
+    /**
+     * Create a provider of this ref that provides the result of the given supplier -- named after this ref.
+     * 
+     * @param preferability  the preferability.
+     * @param supplier       the supplier.
+     * @return the provider.
+     */
+    final Provider<T> newSupplierProvider(Preferability preferability, S supplier) {
+        return newProvider(preferability, namedSupplierFactory.apply(getName(), supplier));
+    }
+    
+}
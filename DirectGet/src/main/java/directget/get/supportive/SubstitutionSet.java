@@ -0,0 +1,142 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import directget.get.App;
+import directget.get.Ref;
+import directget.get.run.Wrapper;
+import lombok.val;
+
+/**
+ * Set of providers to be substituted together -- prepared once and applied many times.
+ * 
+ * The providers are collected into an array when the set is created (only the last provider of each ref is kept as
+ *   that is the one to be seen) so applying the set to a Get is just pushing the array -- no stream or list.
+ * 
+ * @author NawaMan
+ */
+@SuppressWarnings("rawtypes")
+public final class SubstitutionSet implements Wrapper {
+    
+    /** The empty substitution set. */
+    public static final SubstitutionSet EMPTY = new SubstitutionSet(Collections.emptyList());
+    
+    final Provider[] providers;
+    
+    /**
+     * Constructor.
+     * 
+     * @param providers  the providers -- {@code null} are ignored.
+     */
+    public SubstitutionSet(Provider ... providers) {
+        this(Arrays.asList(providers));
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param providers  the providers -- {@code null} are ignored.
+     */
+    public SubstitutionSet(Collection<? extends Provider> providers) {
+        this.providers = toArray(providers);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param providers  the stream of providers -- {@code null} are ignored.
+     */
+    public SubstitutionSet(Stream<? extends Provider> providers) {
+        this(toList(providers));
+    }
+    
+    private static List<Provider> toList(Stream<? extends Provider> providers) {
+        val list = new ArrayList<Provider>();
+        providers.forEachOrdered(list::add);
+        return list;
+    }
+    
+    private static Provider[] toArray(Collection<? extends Provider> providers) {
+        val list = new ArrayList<Provider>(providers.size());
+        for (Provider provider : providers) {
+            if (provider == null) {
+                continue;
+            }
+            
+            // The later provider of the same ref will be on top of the stack anyway.
+            val id    = provider.getRef().getId();
+            int index = 0;
+            while ((index < list.size()) && (list.get(index).getRef().getId() != id)) {
+                index++;
+            }
+            if (index < list.size()) {
+                list.set(index, provider);
+            } else {
+                list.add(provider);
+            }
+        }
+        return list.toArray(new Provider[list.size()]);
+    }
+    
+    /** @return the number of providers in this set. */
+    public int size() {
+        return providers.length;
+    }
+    
+    /** @return {@code true} if this set has no provider. */
+    public boolean isEmpty() {
+        return providers.length == 0;
+    }
+    
+    /**
+     * Check if this set has a provider for the given ref.
+     * 
+     * @param ref  the ref.
+     * @return {@code true} if there is a provider for the ref.
+     */
+    public boolean hasProvider(Ref<?> ref) {
+        for (val provider : providers) {
+            if (provider.getRef() == ref) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /** @return the providers in this set. */
+    public Stream<Provider> getProviders() {
+        return Arrays.stream(providers);
+    }
+    
+    @Override
+    public Runnable apply(Runnable runnable) {
+        return ()->App.Get().substitute(this, runnable);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "SubstitutionSet(" + providers.length + ")";
+    }
+    
+}
@@ -0,0 +1,70 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads -- only available on Java 21 or later.
+ * 
+ * This is the Java 8 version of this class. The jar is a multi-release jar and carries the version from
+ *   {@code src/main/java21} that is used on Java 21 or later. Here, the threads are platform threads (from
+ *   {@link CounterThreadFactory}) and the executor runs each task on a new one of them -- so the code using this class
+ *   still works, only without the benefit of the virtual threads. Use {@link #isSupported()} to check -- for example:
+ * 
+ * <pre>
+ * if (VirtualThreads.isSupported()) {
+ *     App.initialize(new Configuration(
+ *             Get.DefaultExecutor     .butProvidedWith(VirtualThreads.executor()),
+ *             Get.DefaultThreadFactory.butProvidedWith(VirtualThreads.threadFactory())));
+ * }
+ * </pre>
+ * 
+ * @author NawaMan
+ */
+public final class VirtualThreads {
+    
+    private static final Executor executor = runnable -> threadFactory().newThread(runnable).start();
+    
+    private VirtualThreads() {
+    }
+    
+    /** @return {@code true} if the virtual threads are supported by this JVM. */
+    public static boolean isSupported() {
+        return false;
+    }
+    
+    /**
+     * Returns the thread factory that creates virtual threads -- platform threads when running on Java before 21.
+     * 
+     * @return the thread factory.
+     */
+    public static ThreadFactory threadFactory() {
+        return CounterThreadFactory.instance;
+    }
+    
+    /**
+     * Returns the executor that runs each task on a new virtual thread -- a new platform thread when running on Java
+     *   before 21.
+     * 
+     * @return the executor.
+     */
+    public static Executor executor() {
+        return executor;
+    }
+    
+}
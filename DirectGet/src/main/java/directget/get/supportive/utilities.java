@@ -15,26 +15,14 @@
 //  ========================================================================
 package directget.get.supportive;
 
-import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import lombok.val;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 class utilities {
     
-    private static Function<Map.Entry<?, ?>, String> pairToString = each -> {
-        val toString = each.getKey() + "=" + each.getValue();
-        return toString;
-    };
-    
-    public Stream<String> _toPairStrings(Map<?, ?> theGivenMap) {
-        return theGivenMap.entrySet().stream().map(pairToString);
-    }
-    
     public String _toIndentLines(Stream<String> eachLines) {
         return eachLines.collect(Collectors.joining(",\n\t"));
     }
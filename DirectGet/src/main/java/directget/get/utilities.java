@@ -15,34 +15,20 @@
 //  ========================================================================
 package directget.get;
 
-import static java.util.Collections.emptyMap;
-import static java.util.Collections.unmodifiableMap;
-
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import dssb.utils.common.Nulls;
 import lombok.val;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 class utilities {
     
-    @SuppressWarnings({ "rawtypes", "unchecked" })
-    private static final Function<Map, Map> newTreeMap = (Function<Map, Map>) TreeMap::new;
-    
-    public <K, V> Map<K, V> _toUnmodifiableSortedMap(Map<K, V> theGivenMap) {
-        @SuppressWarnings("unchecked")
-        Map<K, V> newProviderMap = Nulls.or(Nulls.mapTo(theGivenMap, newTreeMap), emptyMap());
-        return unmodifiableMap(newProviderMap);
-    }
-    
     private static Function<Map.Entry<?, ?>, String> pairToString = each -> {
         val toString = each.getKey() + "=" + each.getValue();
         return toString;
@@ -8,7 +8,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -78,8 +77,14 @@ public class ObjectLocator implements ILocateObject {
     
     private Bindings binidings;
     
+    /**
+     * The suppliers of the classes.
+     * 
+     * This is a map of this locator (not a ClassValue) so the suppliers go away with the locator. A supplier is
+     *   created outside the map as creating it may look up the suppliers of other classes.
+     */
     @SuppressWarnings("rawtypes")
-    private Map<Class, Supplier> suppliers = new ConcurrentHashMap<Class, Supplier>();
+    private final ConcurrentHashMap<Class, Supplier> suppliers = new ConcurrentHashMap<Class, Supplier>();
     
     private List<IFindSupplier>  additionalSupplierFinders;
     
@@ -181,10 +186,11 @@ public class ObjectLocator implements ILocateObject {
             Class<TYPE> theGivenClass) {
         
         Supplier supplier = suppliers.get(theGivenClass);
-        if (supplier.isNull()) {
-            supplier = newSupplierFor(theGivenClass);
-            supplier = supplier.or(NoSupplier);
-            suppliers.put(theGivenClass, supplier);
+        if (supplier == null) {
+            Supplier newSupplier = newSupplierFor(theGivenClass);
+            newSupplier = newSupplier.or(NoSupplier);
+            Supplier existing = suppliers.putIfAbsent(theGivenClass, newSupplier);
+            supplier = (existing != null) ? existing : newSupplier;
         }
         return supplier;
     }
@@ -0,0 +1,63 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads -- the Java 21 version of this class.
+ * 
+ * Virtual threads are not {@link directget.get.GetThread} so their Gets are kept in the ThreadLocal of the scopes.
+ *   Each task runs on its own virtual thread so the Gets of a task never outlive it.
+ * 
+ * @author NawaMan
+ */
+public final class VirtualThreads {
+    
+    private static final ThreadFactory threadFactory = Thread.ofVirtual().name("VirtualThread#", 1).factory();
+    
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory);
+    
+    private VirtualThreads() {
+    }
+    
+    /** @return {@code true} if the virtual threads are supported by this JVM. */
+    public static boolean isSupported() {
+        return true;
+    }
+    
+    /**
+     * Returns the thread factory that creates virtual threads.
+     * 
+     * @return the thread factory.
+     */
+    public static ThreadFactory threadFactory() {
+        return threadFactory;
+    }
+    
+    /**
+     * Returns the executor that runs each task on a new virtual thread.
+     * 
+     * @return the executor.
+     */
+    public static Executor executor() {
+        return executor;
+    }
+    
+}
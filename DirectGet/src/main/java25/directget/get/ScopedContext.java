@@ -0,0 +1,172 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import java.util.function.Supplier;
+
+import directget.get.supportive.ProviderStackMap;
+import directget.get.supportive.RefFilter;
+import directget.get.supportive.RefToBoolean;
+import directget.get.supportive.SubstitutionSet;
+
+/**
+ * Carrier of the substitution bound to the running code (not to the thread) -- the Java 25 version of this class.
+ * 
+ * Each binding is an immutable frame holding the stacks of one scope. The stacks of a new frame are forked from the
+ *   bound frame of the same scope (or from the Get of the thread if there is none) which takes constant time. The
+ *   frames are never changed once bound so the subtasks forked within them can read them from other threads.
+ * 
+ * @author NawaMan
+ */
+public final class ScopedContext {
+    
+    /** Whether the substitution should be bound with ScopedValue when supported - Default to false. */
+    public static final RefToBoolean enabled = Ref.toBoolean("ScopedContext.enabled", false);
+    
+    private static final ScopedValue<Frame> frame = ScopedValue.newInstance();
+    
+    private static volatile EnabledAt enabledAt = null;
+    
+    private static final class Frame {
+        
+        final Scope scope;
+        
+        final ProviderStackMap stacks;
+        
+        final Frame outer;
+        
+        Frame(Scope scope, ProviderStackMap stacks, Frame outer) {
+            this.scope  = scope;
+            this.stacks = stacks;
+            this.outer  = outer;
+        }
+        
+    }
+    
+    private ScopedContext() {
+    }
+    
+    /** @return {@code true} if this JVM supports binding the substitution with ScopedValue. */
+    public static boolean isSupported() {
+        return true;
+    }
+    
+    /**
+     * Run the runnable with the given substitution bound to it.
+     * 
+     * @param scope         the scope of the substitution.
+     * @param substitution  the substitution.
+     * @param runnable      the runnable body.
+     */
+    public static void run(Scope scope, SubstitutionSet substitution, Runnable runnable) {
+        call(scope, substitution, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Run the supplier with the given substitution bound to it.
+     * 
+     * @param scope         the scope of the substitution.
+     * @param substitution  the substitution.
+     * @param supplier      the supplier body.
+     * @return the result of the supplier.
+     */
+    public static <V> V call(Scope scope, SubstitutionSet substitution, Supplier<V> supplier) {
+        // The Get of the thread is detached while the frame is bound so its accessors do not skip the frame.
+        final GetInstance get = scope.get();
+        get.detach();
+        try {
+            return ScopedValue.where(frame, newFrame(scope, substitution)).call(supplier::get);
+        } finally {
+            get.detach();
+        }
+    }
+    
+    private static Frame newFrame(Scope scope, SubstitutionSet substitution) {
+        ProviderStackMap base = current(scope);
+        if (base == null) {
+            base = scope.get().getProviderStacks();
+        }
+        
+        ProviderStackMap stacks = base.fork(RefFilter.ALL);
+        stacks.pushAll(substitution);
+        return new Frame(scope, stacks, frame.isBound() ? frame.get() : null);
+    }
+    
+    /**
+     * Returns {@code true} if the substitution is to be bound with ScopedValue.
+     * 
+     * This is checked on every substitution so the value configured for the App scope is read once and kept until the
+     *   configuration changes -- substituting {@link #enabled} on a thread has no effect.
+     * 
+     * @return {@code true} if the substitution is to be bound with ScopedValue.
+     */
+    static boolean isEnabled() {
+        final Scope appScope = App.scope;
+        final int   epoch    = appScope.getConfigEpoch();
+        EnabledAt cached = enabledAt;
+        if ((cached == null) || (cached.epoch != epoch)) {
+            cached    = new EnabledAt(epoch, Boolean.TRUE.equals(appScope.getConfiguredValue(enabled)));
+            enabledAt = cached;
+        }
+        return cached.enabled;
+    }
+    
+    /** The value of {@link #enabled} read at a configuration epoch of the App scope. */
+    private static final class EnabledAt {
+        
+        final int epoch;
+        
+        final boolean enabled;
+        
+        EnabledAt(int epoch, boolean enabled) {
+            this.epoch   = epoch;
+            this.enabled = enabled;
+        }
+        
+    }
+    
+    /**
+     * Check if there is a substitution of the given scope bound to the running code.
+     * 
+     * @param scope  the scope.
+     * @return {@code true} if there is one.
+     */
+    public static boolean isBound(Scope scope) {
+        return current(scope) != null;
+    }
+    
+    /**
+     * Returns the substitution of the given scope bound to the running code.
+     * 
+     * @param scope  the scope.
+     * @return the stacks of the bound substitution or {@code null} if there is none.
+     */
+    static ProviderStackMap current(Scope scope) {
+        if (!frame.isBound()) {
+            return null;
+        }
+        for (Frame each = frame.get(); each != null; each = each.outer) {
+            if (each.scope == scope) {
+                return each.stacks;
+            }
+        }
+        return null;
+    }
+    
+}
@@ -25,6 +25,9 @@ import org.junit.Test;
 
 import directget.get.App;
 import directget.get.exceptions.AppScopeAlreadyInitializedException;
+import directget.get.supportive.ConstantProvider;
+import directget.get.supportive.LinkedProvider;
+import directget.get.supportive.SubstitutionSet;
 import dssb.callerid.impl.CallerId;
 import lombok.val;
 
@@ -131,4 +134,121 @@ public class AppTest {
         assertTrue(isInJUnit);
     }
     
+    @Test
+    public void testFreezeInProduction() throws AppScopeAlreadyInitializedException {
+        val _text_ = Ref.to("text", String.class);
+        App.reset();
+        try {
+            App.initialize(new Configuration(
+                    App.mode.butProvidedWith(AppMode.PROD),
+                    App.freezeInProduction.butProvidedWith(true),
+                    _text_.butProvidedWith("Configured")));
+            assertTrue(App.scope.isFrozen());
+            assertEquals("Configured", Get.the(_text_));
+            assertEquals("Configured", App.scope.getFrozenProviders().get(_text_).get());
+        } finally {
+            // App.reset() does nothing in PROD mode.
+            App.scope.reset();
+        }
+        
+        // Only frozen when both the mode and the switch say so.
+        try {
+            App.initialize(new Configuration(
+                    App.mode.butProvidedWith(AppMode.PROD),
+                    _text_.butProvidedWith("Configured")));
+            assertFalse(App.scope.isFrozen());
+        } finally {
+            App.scope.reset();
+        }
+        try {
+            App.initialize(new Configuration(
+                    App.mode.butProvidedWith(AppMode.TEST),
+                    App.freezeInProduction.butProvidedWith(true),
+                    _text_.butProvidedWith("Configured")));
+            assertFalse(App.scope.isFrozen());
+        } finally {
+            App.scope.reset();
+        }
+    }
+    
+    @Test
+    public void testFrozen_laterConfigurationIsRejected() throws AppScopeAlreadyInitializedException {
+        val _text_ = Ref.to("text", String.class);
+        App.reset();
+        try {
+            App.initialize(new Configuration(
+                    App.mode.butProvidedWith(AppMode.PROD),
+                    App.freezeInProduction.butProvidedWith(true),
+                    _text_.butProvidedWith("Configured")));
+            assertTrue(App.scope.isFrozen());
+            val frozenProviders = App.scope.getFrozenProviders();
+            
+            try {
+                App.initialize(new Configuration(_text_.butProvidedWith("Later")));
+                fail("Expect the configuration to be rejected.");
+            } catch (AppScopeAlreadyInitializedException e) {
+                // Expected.
+            }
+            assertFalse(App.initializeIfAbsent(new Configuration(_text_.butProvidedWith("Later"))));
+            
+            assertTrue(App.scope.getFrozenProviders() == frozenProviders);
+            assertEquals("Configured", Get.the(_text_));
+        } finally {
+            App.scope.reset();
+        }
+    }
+    
+    @Test
+    public void testFrozen_refChainIsLinked() throws AppScopeAlreadyInitializedException {
+        val _first_  = Ref.to("first",  String.class);
+        val _second_ = Ref.to("second", String.class);
+        val _third_  = Ref.to("third",  String.class);
+        App.reset();
+        try {
+            App.initialize(new Configuration(
+                    App.mode.butProvidedWith(AppMode.PROD),
+                    App.freezeInProduction.butProvidedWith(true),
+                    _first_ .butProvidedWith("First"),
+                    _second_.butProvidedWithThe(_first_),
+                    _third_ .butProvidedWithThe(_second_)));
+            assertTrue(App.scope.isFrozen());
+            
+            val provider = App.scope.getFrozenProviders().get(_third_);
+            assertTrue(provider instanceof LinkedProvider);
+            assertTrue(((LinkedProvider<?>)provider).getTarget() instanceof ConstantProvider);
+            assertEquals("First", Get.the(_third_));
+            
+            // Substitution is still seen through the link.
+            Run.with(_second_.butProvidedWith("Second")).run(()->{
+                assertEquals("Second", Get.the(_third_));
+            });
+        } finally {
+            // App.reset() does nothing in PROD mode.
+            App.scope.reset();
+        }
+    }
+    
+    @Test
+    public void testFrozen_linkedRefSeesScopedContext() throws AppScopeAlreadyInitializedException {
+        val _first_  = Ref.to("first",  String.class);
+        val _second_ = Ref.to("second", String.class);
+        App.reset();
+        try {
+            App.initialize(new Configuration(
+                    App.mode.butProvidedWith(AppMode.PROD),
+                    App.freezeInProduction.butProvidedWith(true),
+                    _first_ .butProvidedWith("First"),
+                    _second_.butProvidedWithThe(_first_)));
+            assertTrue(App.scope.getFrozenProviders().get(_second_) instanceof LinkedProvider);
+            
+            ScopedContext.run(App.scope, new SubstitutionSet(_first_.butProvidedWith("Scoped")), ()->{
+                assertEquals("Scoped", Get.the(_first_));
+                assertEquals("Scoped", Get.the(_second_));
+            });
+            assertEquals("First", Get.the(_second_));
+        } finally {
+            App.scope.reset();
+        }
+    }
+    
 }
@@ -2,9 +2,14 @@ package directget.get;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.Test;
 
 import directget.get.exceptions.AppScopeAlreadyInitializedException;
+import directget.get.supportive.ConstantProvider;
+import directget.get.supportive.Provider;
+import directget.get.supportive.RefTo;
 import lombok.val;
 
 public class ConfigurationTest {
@@ -119,4 +124,36 @@ public class ConfigurationTest {
         assertEquals("Str2", Configuration.combineOf(configuration2, configuration1).getProvider(ref).get());
     }
     
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testConfiguration_manyRefs() {
+        val refs = new ArrayList<RefTo<Integer>>();
+        val providers = new ArrayList<Provider>();
+        for (int i = 0; i < 1000; i++) {
+            val ref = Ref.to(Integer.class).defaultedTo(-1);
+            refs.add(ref);
+            providers.add(ref.butProvidedWith(i));
+        }
+        val configuration = new Configuration(providers);
+        
+        for (int i = 0; i < refs.size(); i++) {
+            assertTrue(configuration.hasProvider(refs.get(i)));
+            assertEquals(i, configuration.getProvider(refs.get(i)).get().intValue());
+        }
+        
+        val otherRef = Ref.to(Integer.class).defaultedTo(-1);
+        assertFalse(configuration.hasProvider(otherRef));
+        assertNull(configuration.getProvider(otherRef));
+    }
+    
+    @Test
+    public void testConfiguration_valueIsNormalized() {
+        val ref = Ref.to(String.class).defaultedTo("Ref");
+        
+        val configuration = new Configuration(ref.butProvidedWith("Value"));
+        val provider      = configuration.getProvider(ref);
+        assertTrue(provider instanceof ConstantProvider);
+        assertEquals("Value", provider.get());
+    }
+    
 }
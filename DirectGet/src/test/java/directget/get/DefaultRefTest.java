@@ -8,7 +8,11 @@ import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.function.Supplier;
 
 import org.junit.Assert;
@@ -42,6 +46,37 @@ public class DefaultRefTest {
         assertEquals(Ref.of(Car.class), Ref.defaultOf(Car.class));
     }
     
+    public static class Engine {
+    }
+    
+    @Test
+    public void testThat_theDefaultRefIsCreatedOnce() throws InterruptedException {
+        val refs    = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        val start   = new CountDownLatch(1);
+        val threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            val thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                val ref = Ref.defaultOf(Engine.class);
+                synchronized (refs) {
+                    refs.add(ref);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (val thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, refs.size());
+        assertTrue(refs.contains(Ref.defaultOf(Engine.class)));
+    }
+    
     public static class Driver {
         private Car car;
         public Driver(Car car) {
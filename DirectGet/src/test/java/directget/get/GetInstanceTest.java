@@ -18,12 +18,15 @@ package directget.get;
 import static directget.get.Preferability.Dictate;
 import static directget.get.Run.With;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -35,6 +38,7 @@ import directget.get.run.Named;
 import directget.get.run.Wrapper;
 import directget.get.supportive.Provider;
 import directget.get.supportive.RefTo;
+import directget.get.supportive.SubstitutionSet;
 import lombok.val;
 import lombok.experimental.ExtensionMethod;
 
@@ -65,6 +69,268 @@ public class GetInstanceTest implements Named.User {
         assertTrue(App.Get().the(aBuffer).whenNotNull().filter(buffer -> buffer == theBuffer).isPresent());
     }
     
+    @Test
+    public void testResolvedProvider_changedBySubstitution() {
+        assertEquals(orgText, Get.the(_text_));
+        assertEquals(orgText, Get.the(_text_));
+        
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            assertEquals(newText, Get.the(_text_));
+            
+            Run.with(_text_.butProvidedWith("Inner")).run(() -> {
+                assertEquals("Inner", Get.the(_text_));
+            });
+            
+            assertEquals(newText, Get.the(_text_));
+        });
+        
+        assertEquals(orgText, Get.the(_text_));
+    }
+    
+    @Test
+    public void testSubstitution_resetWhenFail() {
+        try {
+            Run.with(_text_.butProvidedWith(newText)).run(() -> {
+                assertEquals(newText, Get.the(_text_));
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException e) {
+        }
+        
+        assertEquals(orgText, Get.the(_text_));
+    }
+    
+    @Test
+    public void testListener_notifiedOnlyWhenSubstituted() {
+        List<String> froms = new ArrayList<>();
+        Preferability.DetermineProviderListener listener = new Preferability.DetermineProviderListener() {
+            @Override
+            public <T> void onDetermine(Ref<T> ref, String from, Provider<T> result,
+                    Supplier<String> stackTraceSupplier, Supplier<String> xraySupplier) {
+                if (ref == _text_) {
+                    froms.add(from);
+                }
+            }
+        };
+        
+        assertEquals(orgText, Get.the(_text_));
+        
+        Run.with(Preferability.DefaultListener.butProvidedWith(listener)).run(() -> {
+            assertEquals(orgText, Get.the(_text_));
+            assertEquals(orgText, Get.the(_text_));
+        });
+        
+        assertEquals(orgText, Get.the(_text_));
+        assertEquals("[Ref, Ref]", froms.toString());
+    }
+    
+    @Test
+    public void testListener_subScopeGetSeesListenerSubstitutedLater() {
+        List<String> froms = new ArrayList<>();
+        Preferability.DetermineProviderListener listener = new Preferability.DetermineProviderListener() {
+            @Override
+            public <T> void onDetermine(Ref<T> ref, String from, Provider<T> result,
+                    Supplier<String> stackTraceSupplier, Supplier<String> xraySupplier) {
+                if (ref == _text_) {
+                    froms.add(from);
+                }
+            }
+        };
+        
+        val subScope = App.scope.newSubScope(new Configuration());
+        assertEquals(orgText, subScope.get().the(_text_));
+        
+        Run.with(Preferability.DefaultListener.butProvidedWith(listener)).run(() -> {
+            assertEquals(orgText, subScope.get().the(_text_));
+        });
+        
+        assertEquals(orgText, subScope.get().the(_text_));
+        assertEquals("[Ref]", froms.toString());
+    }
+    
+    @Test
+    public void testListener_suppressedOnlyForThisGet() {
+        val froms = new ArrayList<String>();
+        Preferability.DetermineProviderListener listener = new Preferability.DetermineProviderListener() {
+            @Override
+            public <T> void onDetermine(Ref<T> ref, String from, Provider<T> result,
+                    Supplier<String> stackTraceSupplier, Supplier<String> xraySupplier) {
+                if (ref == _text_) {
+                    synchronized (froms) {
+                        froms.add(Thread.currentThread().getName());
+                    }
+                }
+            }
+        };
+        
+        val withListener = Run.with(Preferability.DefaultListener.butProvidedWith(listener)).build();
+        withListener.run(() -> {
+            App.Get().withoutListener(() -> {
+                assertEquals(orgText, Get.the(_text_));
+                
+                val thread = new Thread(() -> withListener.run(() -> Get.the(_text_)), "Other");
+                thread.start();
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            });
+            assertEquals(orgText, Get.the(_text_));
+        });
+        
+        assertEquals("[Other, " + Thread.currentThread().getName() + "]", froms.toString());
+    }
+    
+    @Test
+    public void testFrozenScope() {
+        val scope = new Scope();
+        scope.initIfAbsent(new Configuration(_text_.butProvidedWith(newText)));
+        scope.freeze();
+        assertTrue(scope.isFrozen());
+        
+        val get = scope.get();
+        assertEquals(newText, get.the(_text_));
+        
+        val substituted = get.substitute(Stream.of(_text_.butDictatedTo("Inner")), () -> get.the(_text_));
+        assertEquals("Inner", substituted);
+        
+        assertEquals(newText, get.the(_text_));
+    }
+    
+    @Test
+    public void testAccessor() {
+        val accessor = _text_.bindToCurrentThread();
+        assertEquals(orgText, accessor.get());
+        
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            assertEquals(newText, accessor.get());
+            assertEquals(newText, accessor.get());
+        });
+        
+        assertEquals(orgText, accessor.get());
+        
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            val values = new ArrayList<String>();
+            val thread = new Thread(() -> values.add(accessor.get()));
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            // Other thread does not see the substitution of this thread.
+            assertEquals("[" + orgText + "]", values.toString());
+        });
+    }
+    
+    @Test
+    public void testAccessor_otherGetOnSameThread() {
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            val accessor = _text_.bindToCurrentThread();
+            assertEquals(newText, accessor.get());
+            
+            val values = new ArrayList<String>();
+            App.scope.runWithGet(new GetInstance(App.scope), () -> values.add(accessor.get()));
+            // The other Get does not see the substitution of the Get the accessor is bound to.
+            assertEquals("[" + orgText + "]", values.toString());
+            assertEquals(newText, accessor.get());
+        });
+    }
+    
+    @Test
+    public void testAccessor_afterResetGet() {
+        val accessor = new AtomicReference<RefAccessor<String>>();
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            accessor.set(_text_.bindToCurrentThread());
+            assertEquals(newText, accessor.get().get());
+            
+            App.scope.resetGet();
+            // The fresh Get of the thread does not have the substitution.
+            assertEquals(orgText, accessor.get().get());
+        });
+    }
+    
+    @Test
+    public void testManyRefs_resolvedAcrossSubstitutions() {
+        val refs = new ArrayList<RefTo<String>>();
+        for (int i = 0; i < 100; i++) {
+            refs.add(Ref.to("Many" + i, String.class).defaultedTo("Default" + i));
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < refs.size(); i++) {
+                assertEquals("Default" + i, Get.the(refs.get(i)));
+            }
+            Run.with(refs.get(7).butProvidedWith("Seven")).run(() -> {
+                for (int i = 0; i < refs.size(); i++) {
+                    assertEquals((i == 7) ? "Seven" : ("Default" + i), Get.the(refs.get(i)));
+                }
+            });
+        }
+    }
+    
+    @Test
+    public void testSubstitutionSet() {
+        val _other_ = Ref.to("Other", String.class).defaultedTo("Other");
+        
+        val substitution = new SubstitutionSet(
+                _text_.butProvidedWith("Overridden"),
+                _other_.butProvidedWith("Another"),
+                _text_.butProvidedWith(newText));
+        assertEquals(2, substitution.size());
+        
+        val session = Run.with(substitution).build();
+        for (int i = 0; i < 2; i++) {
+            session.run(() -> {
+                assertEquals(newText,   Get.the(_text_));
+                assertEquals("Another", Get.the(_other_));
+            });
+            assertEquals(orgText, Get.the(_text_));
+            assertEquals("Other", Get.the(_other_));
+        }
+        
+        assertEquals(newText, App.Get().substitute(substitution, () -> Get.the(_text_)));
+        assertEquals(orgText, Get.the(_text_));
+    }
+    
+    @Test
+    public void testSnapshot() {
+        val _other_ = Ref.to("Other", String.class).defaultedTo("Other");
+        
+        val snapshot = Run.with(_text_.butProvidedWith(newText)).run(() -> Get.snapshot(_text_));
+        assertTrue(snapshot.has(_text_));
+        assertEquals(newText, snapshot.the(_text_));
+        
+        assertFalse(snapshot.has(_other_));
+        assertNull(snapshot.the(_other_));
+    }
+    
+    @Test
+    public void testSnapshot_manyRefs() {
+        val refs = new ArrayList<RefTo<String>>();
+        for (int i = 0; i < 100; i++) {
+            refs.add(Ref.to("ref" + i, String.class).defaultedTo("Value" + i));
+        }
+        val lastRef = refs.get(refs.size() - 1);
+        
+        val snapshot = Get.snapshot(refs.get(3), lastRef, refs.get(3));
+        assertEquals(2, snapshot.getRefs().count());
+        assertEquals("Value3",  snapshot.the(refs.get(3)));
+        assertEquals("Value99", snapshot.the(lastRef));
+        assertFalse(snapshot.has(refs.get(50)));
+        assertNull(snapshot.the(refs.get(50)));
+    }
+    
+    @Test
+    public void testSnapshot_predicate() {
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            val snapshot = App.Get().snapshot(ref -> ref == _text_);
+            assertEquals(newText, snapshot.the(_text_));
+            assertEquals(1, snapshot.getRefs().count());
+        });
+    }
+    
     private void join() {
         try {
             latch.await();
@@ -44,6 +44,19 @@ public class RefTest {
         assertEquals(ref1, ref2);
     }
     
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testRef_id() {
+        RefOf<List> ref1 = Ref.of(List.class);
+        RefOf<List> ref2 = Ref.of(List.class);
+        assertEquals(ref1.getId(), ref2.getId());
+        
+        Ref<List> ref3 = Ref.to(List.class);
+        Ref<List> ref4 = Ref.to(List.class);
+        assertNotEquals(ref3.getId(), ref4.getId());
+        assertNotEquals(ref1.getId(), ref3.getId());
+    }
+    
     @Test
     @SuppressWarnings("rawtypes")
     public void testRef_toClass() {
@@ -98,4 +111,30 @@ public class RefTest {
         
         assertEquals(5, theLength.value().intValue());
     }
+    @Test
+    public void testRef_primitive() {
+        val poolSize = Ref.toInt("poolSize", 10);
+        val timeout  = Ref.toLong("timeout", () -> 500L);
+        val ratio    = Ref.toDouble("ratio", 0.5);
+        val enabled  = Ref.toBoolean("enabled", false);
+        
+        assertEquals(10,   Get.intOf(poolSize));
+        assertEquals(500L, timeout.getAsLong());
+        assertEquals(0.5,  Get.doubleOf(ratio), 0.0);
+        assertFalse(enabled.getAsBoolean());
+        assertEquals(Integer.valueOf(10), Get.the(poolSize));
+        
+        Run.with(poolSize.butProvidedWith(20), enabled.butDictatedTo(true)).run(() -> {
+            assertEquals(20, poolSize.getAsInt());
+            assertTrue(Get.booleanOf(enabled));
+        });
+        
+        // Boxed provider also works.
+        Run.with(poolSize.butProvidedBy(() -> 30)).run(() -> {
+            assertEquals(30, poolSize.getAsInt());
+        });
+        
+        assertEquals(10, poolSize.getAsInt());
+    }
+    
 }
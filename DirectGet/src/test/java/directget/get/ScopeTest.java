@@ -0,0 +1,150 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import directget.get.supportive.CounterThreadFactory;
+import directget.get.supportive.RefTo;
+import lombok.val;
+
+public class ScopeTest {
+    
+    private RefTo<String> _app_     = Ref.to("app", String.class);
+    private RefTo<String> _tenant_  = Ref.to("tenant", String.class);
+    private RefTo<String> _request_ = Ref.to("request", String.class);
+    
+    @Test
+    public void testScopeChain_grandParentProvider() {
+        val appScope     = new Scope();
+        appScope.initIfAbsent(new Configuration(_app_.butProvidedWith(Preferability.Default, "App")));
+        val tenantScope  = appScope   .newSubScope(new Configuration(_tenant_.butProvidedWith("Tenant")));
+        val requestScope = tenantScope.newSubScope(new Configuration(_request_.butProvidedWith("Request")));
+        
+        val get = requestScope.get();
+        assertEquals("App",     get.the(_app_));
+        assertEquals("Tenant",  get.the(_tenant_));
+        assertEquals("Request", get.the(_request_));
+    }
+    
+    @Test
+    public void testScopeChain_preferability() {
+        val appScope     = new Scope();
+        appScope.initIfAbsent(new Configuration(
+                _app_   .butDictatedTo("App"),
+                _tenant_.butProvidedWith(Preferability.Default, "App")));
+        val tenantScope  = appScope.newSubScope(new Configuration(
+                _app_    .butDictatedTo("Tenant"),
+                _tenant_ .butProvidedWith(Preferability.Default, "Tenant"),
+                _request_.butProvidedWith("Tenant")));
+        val requestScope = tenantScope.newSubScope(new Configuration(
+                _request_.butProvidedWith(Preferability.Default, "Request")));
+        
+        val get = requestScope.get();
+        // The outer most dictate wins.
+        assertEquals("App",    get.the(_app_));
+        // The inner most wins with the same preferability.
+        assertEquals("Tenant", get.the(_tenant_));
+        // The more preferable wins.
+        assertEquals("Tenant", get.the(_request_));
+    }
+    
+    @Test
+    public void testGetThread() throws InterruptedException {
+        val scope = new Scope();
+        scope.initIfAbsent(new Configuration(_app_.butProvidedWith("App")));
+        
+        val results = new ArrayList<Object>();
+        val thread  = CounterThreadFactory.instance.newThread(() -> {
+            val get = scope.get();
+            results.add(get == scope.get());
+            results.add(get != App.Get());
+            results.add(get.substitute(Stream.of(_app_.butProvidedWith("Substituted")), () -> get.the(_app_)));
+            results.add(get.the(_app_));
+        });
+        assertTrue(thread instanceof GetThread);
+        
+        thread.start();
+        thread.join();
+        
+        assertEquals("[true, true, Substituted, App]", results.toString());
+    }
+    
+    @Test
+    public void testConfiguredValue_ignoresSubstitution() {
+        val scope = new Scope();
+        scope.initIfAbsent(new Configuration(_app_.butProvidedWith("App")));
+        
+        val value = scope.get().substitute(Stream.of(_app_.butProvidedWith("Substituted")),
+                () -> scope.get().the(_app_) + "-" + scope.getConfiguredValue(_app_));
+        assertEquals("Substituted-App", value);
+    }
+    
+    @Test
+    public void testResetAllGets() throws InterruptedException {
+        val scope    = new Scope();
+        val subScope = scope.newSubScope(new Configuration());
+        
+        val results = new ArrayList<Object>();
+        val thread  = new Thread(() -> {
+            val get    = scope.get();
+            val subGet = subScope.get();
+            Scope.resetAllGets();
+            results.add(get    != scope.get());
+            results.add(subGet != subScope.get());
+        });
+        
+        thread.start();
+        thread.join();
+        
+        assertEquals("[true, true]", results.toString());
+    }
+    
+    @Test
+    public void testGetThread_manyScopes() throws InterruptedException {
+        val scopes = new ArrayList<Scope>();
+        while (scopes.size() < 300) {
+            scopes.add(App.scope.newSubScope(new Configuration()));
+        }
+        // Live scopes have distinct indexes (released ones may be reused) so the largest is at least 299.
+        val lastScope = scopes.stream().max((a, b) -> Integer.compare(a.index, b.index)).get();
+        assertTrue(lastScope.index >= 256);
+        
+        val results = new ArrayList<Object>();
+        val thread  = CounterThreadFactory.instance.newThread(() -> {
+            val get = lastScope.get();
+            results.add(get == lastScope.get());
+            ((GetThread)Thread.currentThread()).clearGets();
+            results.add(get != lastScope.get());
+            
+            val nextGet = lastScope.get();
+            Scope.resetAllGets();
+            results.add(nextGet != lastScope.get());
+        });
+        
+        thread.start();
+        thread.join();
+        
+        assertEquals("[true, true, true]", results.toString());
+    }
+    
+}
@@ -20,13 +20,24 @@ import static directget.get.Run.Asynchronously;
 import static directget.get.Run.IgnoreHandledProblem;
 import static directget.get.run.exceptions.ProblemHandler.problemHandler;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
@@ -35,6 +46,7 @@ import directget.get.Run;
 import directget.get.retains.Retainers;
 import directget.get.run.exceptions.ProblemHandledException;
 import directget.get.run.exceptions.ProblemHandler;
+import directget.get.run.session.GetFuture;
 import directget.get.supportive.RefTo;
 import dssb.failable.FailableException;
 import lombok.val;
@@ -185,4 +197,241 @@ public class RunTest {
             fail("Except an exception here.");
         });
     }
+    
+    @Test
+    public void testForkJoin_recursive() throws Throwable {
+        // Only two workers -- a blocking join at each level would run out of workers.
+        val pool = new ForkJoinPool(2);
+        try {
+            val result = Run.with(num.butProvidedWith(2)).run(()->{
+                return Asynchronously()
+                        .onForkJoinPool(pool)
+                        .inheritAll()
+                        .run(()->sumOfNum(pool, 0, 1024))
+                        .get();
+            });
+            assertEquals(2048, result.intValue());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testFork_joinRethrowsTheProblemOfTheAsyncRun() throws Throwable {
+        val fork   = new Fork();
+        val result = Asynchronously().joinWith(fork).run(()->{ throw new IOException("failed"); });
+        
+        Throwable joinProblem = null;
+        try {
+            fork.join();
+            fail("The problem of the run is expected.");
+        } catch (FailableException e) {
+            joinProblem = e.getCause();
+        }
+        assertTrue(joinProblem instanceof IOException);
+        assertEquals("failed", joinProblem.getMessage());
+        
+        // The future is completed with the same problem.
+        try {
+            result.get();
+            fail("The problem of the run is expected.");
+        } catch (ExecutionException e) {
+            assertSame(joinProblem, e.getCause());
+        }
+    }
+    
+    @Test
+    public void testForkGroup_joinAll() throws Throwable {
+        val group = new ForkGroup().cancelOnFailure(true);
+        val slow  = Asynchronously().joinWith(group).run(()->{ Thread.sleep(10000); return "slow"; });
+        Asynchronously().joinWith(group).run(()->{ throw new IOException("first"); });
+        try {
+            group.joinAll(5, TimeUnit.SECONDS);
+            fail("Expect an exception.");
+        } catch (IOException e) {
+            assertEquals("first", e.getMessage());
+        }
+        assertTrue(slow.isCompletedExceptionally());
+        assertTrue(group.getSessions().get(0).isCancelled());
+    }
+    
+    @Test
+    public void testForkGroup_joinAnyAndTimeout() throws Throwable {
+        val group = new ForkGroup();
+        Asynchronously().joinWith(group).run(()->{ throw new IOException("one"); });
+        Asynchronously().joinWith(group).run(()->{ Thread.sleep(50); return "two"; });
+        group.joinAny(5, TimeUnit.SECONDS);
+        assertTrue(group.toAnyFuture().isDone());
+        
+        val slowGroup = new ForkGroup();
+        Asynchronously().joinWith(slowGroup).run(()->{ Thread.sleep(10000); return "slow"; });
+        try {
+            slowGroup.joinAll(50, TimeUnit.MILLISECONDS);
+            fail("Expect a timeout.");
+        } catch (TimeoutException e) {
+        }
+        assertTrue(slowGroup.getSessions().get(0).isCancelled());
+    }
+    
+    @Test
+    public void testForkGroup_anySucceedsAfterFailure() throws Throwable {
+        val group = new ForkGroup();
+        val failed = Asynchronously().joinWith(group).run(()->{ throw new IOException("fast"); });
+        Asynchronously().joinWith(group).run(()->{
+            // Only succeeds after the other has failed.
+            while (!failed.isDone()) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(20);
+            return "later";
+        });
+        
+        group.joinAny(5, TimeUnit.SECONDS);
+        assertTrue(failed.isCompletedExceptionally());
+        assertFalse(group.getSessions().get(1).isCancelled());
+        
+        val anyFuture = group.toAnyFuture();
+        anyFuture.get(5, TimeUnit.SECONDS);
+        assertFalse(anyFuture.isCompletedExceptionally());
+    }
+    
+    @Test
+    public void testRunAll_limitedParallelism() throws Throwable {
+        val running    = new AtomicInteger();
+        val maxRunning = new AtomicInteger();
+        val suppliers  = new ArrayList<HandledFailable.Supplier<Integer, InterruptedException>>();
+        for (int i = 0; i < 20; i++) {
+            val index = i;
+            suppliers.add(()->{
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                running.decrementAndGet();
+                return index * the(num);
+            });
+        }
+        
+        List<Integer> results = Run.with(num.butProvidedWith(2)).asynchronously()
+                .inheritAll()
+                .maxParallelism(3)
+                .runAll(suppliers)
+                .get();
+        assertEquals(20, results.size());
+        assertEquals(38, results.get(19).intValue());
+        assertTrue(maxRunning.get() <= 3);
+    }
+    
+    @Test
+    public void testRunAnyAndFirstN() throws Throwable {
+        val suppliers = new ArrayList<HandledFailable.Supplier<String, IOException>>();
+        suppliers.add(()->{ throw new IOException("one"); });
+        suppliers.add(()->"two");
+        suppliers.add(()->"three");
+        
+        assertEquals("two", Asynchronously().maxParallelism(1).runAny(suppliers).get());
+        assertEquals(2, Asynchronously().runFirstN(2, suppliers).get().size());
+        try {
+            Asynchronously().runFirstN(3, suppliers).get();
+            fail("Expect an exception.");
+        } catch (ExecutionException e) {
+            assertEquals("one", e.getCause().getMessage());
+        }
+    }
+    
+    @Test
+    public void testParallel() {
+        val pool = new ForkJoinPool(3);
+        try {
+            List<Integer> results = Run.with(num.butProvidedWith(3)).run(()->{
+                return Run.parallel()
+                        .onPool(pool)
+                        .chunkSize(7)
+                        .map(IntStream.range(0, 100).boxed(), i -> i * the(num));
+            });
+            assertEquals(100, results.size());
+            assertEquals(297, results.get(99).intValue());
+            
+            val sum = new AtomicInteger();
+            Run.with(num.butProvidedWith(2)).run(()->{
+                Run.parallel().onPool(pool).forEach(IntStream.range(0, 100).boxed(), i -> sum.addAndGet(the(num)));
+            });
+            assertEquals(200, sum.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testGetFuture_stagesKeepSubstitution() throws Exception {
+        val result = Run.with(num.butProvidedWith(5))
+                .asynchronously()
+                .inheritAll()
+                .run(()->the(num))
+                .thenApplyAsync(n -> n + the(num))
+                .thenApplyAsync(n -> n + the(num), ForkJoinPool.commonPool())
+                .thenCompose(n -> CompletableFuture.completedFuture(n + the(num)))
+                .get();
+        assertEquals(20, result.intValue());
+        assertEquals(1, the(num).intValue());
+    }
+    
+    @Test
+    public void testGetFuture_derivedStagesKeepSubstitution() throws Exception {
+        GetFuture<Integer> failed = Run.with(num.butProvidedWith(5))
+                .asynchronously()
+                .inheritAll()
+                .run(()->failingNum());
+        val recovered = failed
+                .exceptionallyCompose(problem -> CompletableFuture.completedFuture(the(num)))
+                .toCompletableFuture()
+                .thenApply(n -> n + the(num));
+        assertTrue(recovered instanceof GetFuture);
+        assertEquals(10, recovered.get().intValue());
+    }
+    
+    private int failingNum() throws IOException {
+        throw new IOException("failed");
+    }
+    
+    @Test
+    public void testGetFuture_cancelCancelsTheSession() throws Throwable {
+        val fork    = new Fork();
+        val started = new CountDownLatch(1);
+        val result  = Asynchronously().joinWith(fork).run(()->{
+            started.countDown();
+            Thread.sleep(10000);
+            return "slow";
+        });
+        started.await();
+        
+        assertTrue(result.cancel(true));
+        try {
+            fork.join();
+            fail("The session is expected to be cancelled.");
+        } catch (CancellationException e) {
+            // Expected.
+        }
+        assertTrue(fork.getSession().isCancelled());
+    }
+    
+    private int sumOfNum(ForkJoinPool pool, int from, int to) throws Throwable {
+        if (to - from <= 16) {
+            int sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += the(num);
+            }
+            return sum;
+        }
+        
+        val middle = (from + to) / 2;
+        val fork   = new Fork();
+        val left   = Asynchronously()
+                .onForkJoinPool(pool)
+                .inheritAll()
+                .joinWith(fork)
+                .run(()->sumOfNum(pool, from, middle));
+        val right = sumOfNum(pool, middle, to);
+        fork.join();
+        return left.getNow(null) + right;
+    }
+    
 }
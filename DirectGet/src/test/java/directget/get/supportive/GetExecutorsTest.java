@@ -0,0 +1,88 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import directget.get.Get;
+import directget.get.Ref;
+import directget.get.Run;
+import lombok.val;
+
+public class GetExecutorsTest {
+    
+    private final RefTo<String> _text_ = Ref.to("text", String.class).defaultedTo("Original");
+    
+    @Test
+    public void testPropagating() throws Exception {
+        val pool     = Executors.newScheduledThreadPool(1);
+        val executor = GetExecutors.propagating(pool);
+        try {
+            val submitted = Run.with(_text_.butProvidedWith("Submitted")).run(()->{
+                return executor.submit(()->Get.the(_text_));
+            });
+            assertEquals("Submitted", submitted.get());
+            
+            val scheduled = Run.with(_text_.butProvidedWith("Scheduled")).run(()->{
+                return executor.schedule(()->Get.the(_text_), 1, TimeUnit.MILLISECONDS);
+            });
+            assertEquals("Scheduled", scheduled.get());
+            
+            Callable<String> task = ()->Get.the(_text_);
+            val invoked = Run.with(_text_.butProvidedWith("Invoked")).run(()->{
+                return executor.invokeAll(Arrays.asList(task, task));
+            });
+            assertEquals("Invoked", invoked.get(1).get());
+            
+            // The worker is back to its own Get.
+            assertEquals("Original", pool.submit(()->Get.the(_text_)).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testPropagating_again() throws Exception {
+        val _other_ = Ref.to("other", String.class).defaultedTo("Original");
+        
+        val pool       = Executors.newSingleThreadExecutor();
+        val textFilter = RefFilter.including(Arrays.asList(_text_));
+        val textOnly   = GetExecutors.propagating(pool, textFilter);
+        val everything = GetExecutors.propagating(textOnly);
+        try {
+            assertSame(textOnly, GetExecutors.propagating(textOnly, textFilter));
+            
+            val values = Run.with(_text_.butProvidedWith("Text"), _other_.butProvidedWith("Other")).run(()->{
+                val textOnlyValue   = textOnly  .submit(()->Get.the(_text_) + "-" + Get.the(_other_)).get();
+                val everythingValue = everything.submit(()->Get.the(_text_) + "-" + Get.the(_other_)).get();
+                return textOnlyValue + ", " + everythingValue;
+            });
+            // The new filter is used instead of the one of the executor it decorates.
+            assertEquals("Text-Original, Text-Other", values);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+}
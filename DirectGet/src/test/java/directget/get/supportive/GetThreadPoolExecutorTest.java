@@ -0,0 +1,196 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import directget.get.App;
+import directget.get.Configuration;
+import directget.get.Get;
+import directget.get.Ref;
+import directget.get.Run;
+import directget.get.Scope;
+import lombok.val;
+
+public class GetThreadPoolExecutorTest {
+    
+    private final RefTo<String> _text_ = Ref.to("text", String.class).defaultedTo("Original");
+    
+    @Test
+    public void testWorkerDoesNotLeakSubstitution() throws InterruptedException {
+        val executor = new GetThreadPoolExecutor(1, 1, 1000, 10, CounterThreadFactory.instance,
+                new ThreadPoolExecutor.AbortPolicy());
+        try {
+            val values = new ArrayList<String>();
+            val done   = new CountDownLatch(2);
+            Run.with(Get.DefaultExecutor.butProvidedWith(executor), _text_.butProvidedWith("Substituted")).run(()->{
+                App.Get().runAsync(Get.INHERIT_ALL, ()->{
+                    values.add(Get.the(_text_));
+                    done.countDown();
+                });
+            });
+            executor.execute(()->{
+                values.add(Get.the(_text_));
+                done.countDown();
+            });
+            done.await();
+            
+            assertEquals("[Substituted, Original]", values.toString());
+            assertEquals(1, executor.getLargestPoolSize());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testCounters() throws InterruptedException {
+        val executor = new GetThreadPoolExecutor(1, 1, 1000, 1, CounterThreadFactory.instance,
+                new ThreadPoolExecutor.AbortPolicy());
+        try {
+            val started = new CountDownLatch(1);
+            val release = new CountDownLatch(1);
+            executor.execute(()->{
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.execute(()->{});
+            
+            assertEquals(1, executor.getActiveWorkers());
+            assertEquals(1, executor.getQueueDepth());
+            try {
+                executor.execute(()->{});
+                fail("Expect the task to be rejected.");
+            } catch (RejectedExecutionException e) {
+                assertEquals(1L, executor.getRejectedCount());
+            }
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testWorkerDoesNotLeakSubScopeGet_plainThread() throws InterruptedException {
+        val subScope = App.scope.newSubScope(new Configuration());
+        val executor = new GetThreadPoolExecutor(1, 1, 1000, 10, Executors.defaultThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        try {
+            val gets = new ArrayList<Object>();
+            val done = new CountDownLatch(2);
+            executor.execute(()->{
+                gets.add(subScope.get());
+                done.countDown();
+            });
+            executor.execute(()->{
+                gets.add(subScope.get());
+                done.countDown();
+            });
+            done.await();
+            
+            assertTrue(gets.get(0) != gets.get(1));
+            assertEquals(1, executor.getLargestPoolSize());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSaturated_callerRuns() throws InterruptedException {
+        val executor = new GetThreadPoolExecutor(1, 1, 1000, 1, CounterThreadFactory.instance,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            val started = new CountDownLatch(1);
+            val release = new CountDownLatch(1);
+            executor.execute(()->{
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.execute(()->{});
+            
+            val threads = new ArrayList<Thread>();
+            executor.execute(()->threads.add(Thread.currentThread()));
+            
+            assertEquals("[" + Thread.currentThread() + "]", threads.toString());
+            assertEquals(1L, executor.getRejectedCount());
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testSaturated_callerRunsDoesNotLeakForkedGet() throws InterruptedException {
+        val executor = new GetThreadPoolExecutor(1, 1, 1000, 1, CounterThreadFactory.instance,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            val started = new CountDownLatch(1);
+            val release = new CountDownLatch(1);
+            executor.execute(()->{
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.execute(()->{});
+            
+            val values = new ArrayList<String>();
+            Run.with(_text_.butProvidedWith("Outer")).run(()->{
+                App.Get().runAsync(Get.INHERIT_ALL, executor, ()->{
+                    Run.with(_text_.butProvidedWith("Inner")).run(()->{
+                        values.add(Get.the(_text_));
+                    });
+                    values.add(Get.the(_text_));
+                });
+                values.add(Get.the(_text_));
+            });
+            values.add(Get.the(_text_));
+            
+            // The task ran on this thread but its Get did not stay.
+            assertEquals("[Inner, Outer, Outer, Original]", values.toString());
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    
+}
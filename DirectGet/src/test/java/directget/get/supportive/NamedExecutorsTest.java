@@ -0,0 +1,83 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import directget.get.Get;
+import directget.get.Ref;
+import directget.get.Run;
+import directget.get.run.Fork;
+import lombok.val;
+
+public class NamedExecutorsTest {
+    
+    private static final AtomicInteger executed = new AtomicInteger();
+    
+    private static final RefTo<Executor> counting = NamedExecutors.register("NamedExecutorsTest.counting",
+            Ref.to("NamedExecutorsTest.counting", Executor.class).defaultedTo(runnable -> {
+                executed.incrementAndGet();
+                new Thread(runnable).start();
+            }));
+    
+    @Test
+    public void testBuiltInPools() {
+        assertTrue(NamedExecutors.getNames().containsAll(Arrays.asList("cpu", "io", "blocking")));
+        assertEquals(NamedExecutors.IO.executor, NamedExecutors.get("io"));
+        assertNotSame(Get.the(NamedExecutors.IO.executor), Get.the(NamedExecutors.CPU.executor));
+        assertEquals(Get.the(NamedExecutors.IO.executor), NamedExecutors.IO.getPool());
+    }
+    
+    @Test
+    public void testPoolIgnoresSubstitutionOfTheFirstUser() {
+        val pool = new NamedExecutors.Pool("NamedExecutorsTest.sized", 2, 2, 8);
+        try {
+            Run.with(pool.corePoolSize.butProvidedWith(5), pool.maxPoolSize.butProvidedWith(5)).run(pool::getPool);
+            // The pool is shared so it is sized as configured.
+            assertEquals(2, pool.getPool().getCorePoolSize());
+            assertEquals(2, pool.getPool().getMaximumPoolSize());
+        } finally {
+            pool.getPool().shutdown();
+        }
+    }
+    
+    @Test
+    public void testOn() throws Throwable {
+        val before = executed.get();
+        
+        Run.asynchronously().on("NamedExecutorsTest.counting").run(()->{}).get();
+        assertEquals(before + 1, executed.get());
+        
+        val fork = new Fork().on(counting);
+        Run.asynchronously().joinWith(fork).run(()->{});
+        fork.join();
+        assertEquals(before + 2, executed.get());
+        
+        // The session choice wins over the one of the fork.
+        Run.asynchronously().joinWith(fork).on(NamedExecutors.CPU.executor).run(()->{});
+        fork.join();
+        assertEquals(before + 2, executed.get());
+    }
+    
+}
@@ -0,0 +1,111 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import directget.get.Ref;
+import lombok.val;
+
+public class ProviderStackMapTest {
+    
+    private final RefTo<String> _one_ = Ref.to("one", String.class);
+    private final RefTo<String> _two_ = Ref.to("two", String.class);
+    
+    @Test
+    public void testPushPop() {
+        val stacks = new ProviderStackMap();
+        assertTrue(stacks.isEmpty());
+        
+        val mark = stacks.mark();
+        stacks.push(_one_.butProvidedWith("1"));
+        stacks.push(_one_.butProvidedWith("1.1"));
+        assertEquals("1.1", stacks.peek(_one_).get());
+        assertNull(stacks.peek(_two_));
+        
+        assertTrue(stacks.popTo(mark));
+        assertFalse(stacks.popTo(mark));
+        assertNull(stacks.peek(_one_));
+        assertTrue(stacks.isEmpty());
+    }
+    
+    @Test
+    public void testManyRefs() {
+        val refs   = new ArrayList<RefTo<String>>();
+        val stacks = new ProviderStackMap();
+        for (int i = 0; i < 2000; i++) {
+            val ref = Ref.to("ref" + i, String.class);
+            refs.add(ref);
+            stacks.push(ref.butProvidedWith("" + i));
+        }
+        for (int i = 0; i < refs.size(); i++) {
+            assertEquals("" + i, stacks.peek(refs.get(i)).get());
+        }
+        assertEquals(2000, stacks.getRefs().count());
+    }
+    
+    @Test
+    public void testFork() {
+        val stacks = new ProviderStackMap();
+        stacks.push(_one_.butProvidedWith("1"));
+        stacks.push(_two_.butProvidedWith("2"));
+        
+        @SuppressWarnings("rawtypes")
+        List<Ref> onlyOne = asList(_one_);
+        val forked = stacks.fork(RefFilter.including(onlyOne));
+        assertEquals("1", forked.peek(_one_).get());
+        assertNull(forked.peek(_two_));
+        
+        // Changes after the fork are not seen by the other.
+        stacks.push(_one_.butProvidedWith("1.1"));
+        forked.push(_two_.butProvidedWith("2.2"));
+        assertEquals("1",   forked.peek(_one_).get());
+        assertEquals("2.2", forked.peek(_two_).get());
+        assertEquals("1.1", stacks.peek(_one_).get());
+        assertEquals("2",   stacks.peek(_two_).get());
+        
+        assertTrue(stacks.fork(RefFilter.NONE).isEmpty());
+    }
+    
+    @Test
+    public void testFork_deep() {
+        ProviderStackMap stacks = new ProviderStackMap();
+        stacks.push(_one_.butProvidedWith("1"));
+        stacks.push(_two_.butProvidedWith("2"));
+        
+        @SuppressWarnings("rawtypes")
+        List<Ref> onlyOne = asList(_one_);
+        val onlyOneFilter = RefFilter.including(onlyOne);
+        for (int i = 0; i < 10000; i++) {
+            stacks = stacks.fork((i % 2 == 0) ? RefFilter.ALL : onlyOneFilter);
+            stacks.push(_one_.butProvidedWith("1." + i));
+        }
+        
+        assertEquals("1.9999", stacks.peek(_one_).get());
+        assertNull(stacks.peek(_two_));
+        assertEquals(1L, stacks.getRefs().count());
+    }
+    
+}
@@ -0,0 +1,47 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get.supportive;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import directget.get.GetThread;
+import lombok.val;
+
+public class VirtualThreadsTest {
+    
+    @Test
+    public void testExecutor() throws InterruptedException {
+        val thread = new AtomicReference<Thread>();
+        val done   = new CountDownLatch(1);
+        VirtualThreads.executor().execute(()->{
+            thread.set(Thread.currentThread());
+            done.countDown();
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(thread.get() != Thread.currentThread());
+        if (!VirtualThreads.isSupported()) {
+            // Falls back to the platform threads.
+            assertTrue(thread.get() instanceof GetThread);
+        }
+    }
+    
+}
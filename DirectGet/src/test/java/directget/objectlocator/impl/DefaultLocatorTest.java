@@ -5,11 +5,13 @@ import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
 import directget.objectlocator.api.ILocateObject;
+import lombok.val;
 
 public class DefaultLocatorTest {
     
@@ -18,4 +20,22 @@ public class DefaultLocatorTest {
         assertTrue(ObjectLocator.class.isInstance(ILocateObject.defaultLocator().get()));
     }
     
+    public static class Leaf {
+    }
+    
+    @Test
+    public void testLocatorIsCollectable() throws InterruptedException {
+        ObjectLocator locator = new ObjectLocator();
+        assertTrue(locator.get(Leaf.class) instanceof Leaf);
+        
+        // The cached suppliers must not keep the locator alive.
+        val reference = new WeakReference<ObjectLocator>(locator);
+        locator = null;
+        for (int i = 0; (i < 50) && (reference.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(reference.get() == null);
+    }
+    
 }
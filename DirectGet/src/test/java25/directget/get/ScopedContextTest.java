@@ -0,0 +1,87 @@
+//  ========================================================================
+//  Copyright (c) 2017 Nawapunth Manusitthipol.
+//  ------------------------------------------------------------------------
+//  All rights reserved. This program and the accompanying materials
+//  are made available under the terms of the Eclipse Public License v1.0
+//  and Apache License v2.0 which accompanies this distribution.
+//
+//      The Eclipse Public License is available at
+//      http://www.eclipse.org/legal/epl-v10.html
+//
+//      The Apache License v2.0 is available at
+//      http://www.opensource.org/licenses/apache2.0.php
+//
+//  You may elect to redistribute this code under either of these licenses.
+//  ========================================================================
+package directget.get;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import directget.get.exceptions.AppScopeAlreadyInitializedException;
+import directget.get.supportive.RefTo;
+
+// These tests are for the Java 25 version of ScopedContext -- they only run with the Java 25 classes (testJava25).
+public class ScopedContextTest {
+    
+    private String orgText = "The Text";
+    
+    private String newText = "Another Text";
+    
+    private RefTo<String> _text_ = Ref.to("TheText", String.class).defaultedTo(orgText);
+    
+    @Test
+    public void testSupported() {
+        assertTrue(ScopedContext.isSupported());
+    }
+    
+    @Test
+    public void testNotEnabled_substitutionIsKeptByTheGet() {
+        Run.with(_text_.butProvidedWith(newText)).run(() -> {
+            assertFalse(ScopedContext.isBound(App.scope));
+            assertEquals(newText, Get.the(_text_));
+        });
+        assertEquals(orgText, Get.the(_text_));
+    }
+    
+    @Test
+    public void testEnabled_substitutionIsBound() throws AppScopeAlreadyInitializedException {
+        App.reset();
+        try {
+            App.initialize(new Configuration(ScopedContext.enabled.butProvidedWith(true)));
+            
+            final RefAccessor<String> accessor = _text_.bindToCurrentThread();
+            assertEquals(orgText, accessor.get());
+            
+            Run.with(_text_.butProvidedWith(newText)).run(() -> {
+                assertTrue(ScopedContext.isBound(App.scope));
+                assertEquals(newText, Get.the(_text_));
+                assertEquals(newText, accessor.get());
+            });
+            
+            assertFalse(ScopedContext.isBound(App.scope));
+            assertEquals(orgText, Get.the(_text_));
+            assertEquals(orgText, accessor.get());
+        } finally {
+            App.reset();
+        }
+    }
+    
+    @Test
+    public void testEnabled_substitutedOnThreadHasNoEffect() {
+        final AtomicBoolean isBound = new AtomicBoolean(true);
+        Run.with(ScopedContext.enabled.butProvidedWith(true)).run(() -> {
+            Run.with(_text_.butProvidedWith(newText)).run(() -> {
+                isBound.set(ScopedContext.isBound(App.scope));
+            });
+        });
+        // Only the value configured for the App scope is read.
+        assertFalse(isBound.get());
+    }
+    
+}